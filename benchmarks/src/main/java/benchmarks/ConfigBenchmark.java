@@ -0,0 +1,52 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import utils.ConfigReader;
+import utils.HealeniumConfig;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks configuration access done once or more per test.
+ * Run from the repository root so the framework finds src/test/resources.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigBenchmark {
+    
+    /**
+     * Cost of obtaining the configuration, as BaseTest does before every test.
+     */
+    @Benchmark
+    public ConfigReader configReaderLookup() {
+        return ConfigReader.getInstance();
+    }
+    
+    /**
+     * Cost of a typed property read from the shared snapshot.
+     */
+    @Benchmark
+    public int configIntProperty() {
+        return ConfigReader.getInstance().getIntProperty("pool.size", 3);
+    }
+    
+    /**
+     * Cost of checking whether healing is enabled.
+     */
+    @Benchmark
+    public boolean isHealingEnabled() {
+        return HealeniumConfig.isHealingEnabled();
+    }
+}
@@ -0,0 +1,134 @@
+package benchmarks;
+
+import base.FixtureServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.PageFactory;
+import pages.HomePage;
+import pages.LoginPage;
+import pages.ProductPage;
+import utils.CachingElementLocatorFactory;
+import utils.WaitHelper;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks page-object hot paths against a local fixture in HtmlUnit:
+ * element initialization, a full login and WaitHelper waits.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class PageObjectBenchmark {
+    
+    /** Plain page class for the stock PageFactory baseline */
+    public static class PlainLoginPage {
+        @FindBy(id = "username")
+        WebElement usernameField;
+    }
+    
+    private FixtureServer fixtures;
+    private WebDriver driver;
+    private String loginUrl;
+    
+    @Setup(Level.Trial)
+    public void startBrowser() throws IOException {
+        fixtures = new FixtureServer();
+        loginUrl = fixtures.url("login.html");
+        // Same navigation tracking as pooled sessions, so cached page elements behave as in the tests
+        driver = CachingElementLocatorFactory.trackNavigation(new HtmlUnitDriver(true));
+    }
+    
+    @Setup(Level.Iteration)
+    public void loadFixture() {
+        driver.get(loginUrl);
+    }
+    
+    @TearDown(Level.Trial)
+    public void stopBrowser() {
+        driver.quit();
+        fixtures.stop();
+    }
+    
+    /**
+     * Stock PageFactory proxy creation, for comparison with the caching factory.
+     */
+    @Benchmark
+    public PlainLoginPage pageFactoryInitElements() {
+        PlainLoginPage page = new PlainLoginPage();
+        PageFactory.initElements(driver, page);
+        return page;
+    }
+    
+    /**
+     * Page object construction as used by the tests.
+     */
+    @Benchmark
+    public Object initLoginPage() {
+        return new LoginPage(driver);
+    }
+    
+    /**
+     * Home page construction.
+     */
+    @Benchmark
+    public Object initHomePage() {
+        return new HomePage(driver);
+    }
+    
+    /**
+     * Product page construction.
+     */
+    @Benchmark
+    public Object initProductPage() {
+        return new ProductPage(driver);
+    }
+    
+    /**
+     * Full login through the page object, ending with the error message shown.
+     */
+    @Benchmark
+    public boolean loginRejected() {
+        LoginPage page = new LoginPage(driver);
+        page.login("invalidUser", "wrongPassword");
+        return page.isErrorMessageDisplayed();
+    }
+    
+    /**
+     * Visibility wait on an element that is already visible - pure wait overhead.
+     */
+    @Benchmark
+    public void waitForVisibleElement() {
+        new WaitHelper(driver).waitForElementVisible(By.id("username"));
+    }
+    
+    /**
+     * Title wait that is already satisfied - pure wait overhead.
+     */
+    @Benchmark
+    public void waitForTitle() {
+        new WaitHelper(driver).waitForTitle("Login");
+    }
+}
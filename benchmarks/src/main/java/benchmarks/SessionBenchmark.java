@@ -0,0 +1,73 @@
+package benchmarks;
+
+import com.epam.healenium.SelfHealingDriver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import utils.EmbeddedHealingBackend;
+import utils.HealeniumConfig;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks session creation with and without the Healenium wrapper,
+ * mirroring what DriverManager does per session. HtmlUnit stands in for the
+ * browser and the embedded backend stands in for hlm-backend, so the
+ * difference between the two numbers is the healing wrapper's own cost.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SessionBenchmark {
+    
+    private EmbeddedHealingBackend backend;
+    
+    @Setup(Level.Trial)
+    public void startBackend() throws IOException {
+        backend = new EmbeddedHealingBackend(0, null);
+        backend.start();
+        HealeniumConfig.overrideServerUrl(backend.getUrl());
+        HealeniumConfig.overrideImitatorUrl(backend.getUrl());
+    }
+    
+    @TearDown(Level.Trial)
+    public void stopBackend() {
+        backend.stop();
+    }
+    
+    /**
+     * Bare driver launch and quit.
+     */
+    @Benchmark
+    public void createPlainSession() {
+        WebDriver driver = new HtmlUnitDriver(true);
+        driver.quit();
+    }
+    
+    /**
+     * Driver launch wrapped in SelfHealingDriver, then quit.
+     */
+    @Benchmark
+    public void createSelfHealingSession() {
+        WebDriver driver = SelfHealingDriver.create(new HtmlUnitDriver(true));
+        driver.quit();
+    }
+}
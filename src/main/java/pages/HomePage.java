@@ -3,7 +3,8 @@ package pages;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+import utils.CachingElementLocatorFactory;
+import utils.WaitHelper;
 
 /**
  * Page Object Model for Home Page (Secure Area).
@@ -18,18 +19,22 @@ public class HomePage {
     /** WebDriver instance */
     private WebDriver driver;
     
+    /** Element cache for this page instance */
+    
     /** Logout link element */
     @FindBy(linkText = "Logout")
     WebElement logoutButton;
     
     /**
-     * Constructor to initialize page elements using PageFactory.
+     * Constructor to initialize page elements with cached, stale-aware lookups.
+     * Waits until the secure area is present, whatever the page load strategy.
      * 
      * @param driver WebDriver instance to interact with the browser
      */
     public HomePage(WebDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(driver, this);
+        CachingElementLocatorFactory.initElements(driver, this);
+        new WaitHelper(driver).waitForPageReady(this);
     }
     
     /**
@@ -1,9 +1,15 @@
 package pages;
 
+import constants.TimeoutConstants;
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+import utils.CachingElementLocatorFactory;
+import utils.OptionalElement;
+import utils.WaitCondition;
+import utils.WaitHelper;
 
 /**
  * Page Object Model for Login Page.
@@ -14,6 +20,24 @@ import org.openqa.selenium.support.PageFactory;
  */
 public class LoginPage {
     
+    /**
+     * Locator of the error banner as the site renders it, used to wait for it in the page.
+     * In-page waits bypass Healenium, so this must match the real page; the {@code errorMessage}
+     * field keeps its outdated locator for the healing demo.
+     */
+    private static final By ERROR_MESSAGE = By.cssSelector("#flash.error");
+    
+    /** Outcome condition: redirected to the secure area */
+    private static final WaitCondition LOGGED_IN = WaitCondition.urlContains("secure");
+    
+    /** Outcome condition: error message shown */
+    private static final WaitCondition LOGIN_REJECTED = WaitCondition.visible(ERROR_MESSAGE);
+    
+    /** WebDriver instance */
+    private WebDriver driver;
+    
+    /** Element cache for this page instance */
+    
     /** Username input field */
     @FindBy(id = "username")
     WebElement usernameField;
@@ -27,16 +51,20 @@ public class LoginPage {
     WebElement loginButton;
     
     /** Error message element displayed on login failure */
+    @OptionalElement
     @FindBy(className = "error-message")
     WebElement errorMessage;
     
     /**
-     * Constructor to initialize page elements using PageFactory.
+     * Constructor to initialize page elements with cached, stale-aware lookups.
+     * Waits until the login form is present, whatever the page load strategy.
      * 
      * @param driver WebDriver instance to interact with the browser
      */
     public LoginPage(WebDriver driver) {
-        PageFactory.initElements(driver, this);
+        this.driver = driver;
+        CachingElementLocatorFactory.initElements(driver, this);
+        new WaitHelper(driver).waitForPageReady(this);
     }
     
     /**
@@ -66,4 +94,35 @@ public class LoginPage {
             return false;
         }
     }
+    
+    /**
+     * Waits for the error message to appear after a login attempt.
+     * Returns as soon as the message is rendered instead of sleeping a fixed time.
+     * If the banner is not found in the page, the healed {@code errorMessage} element decides.
+     * 
+     * @return true if error message became visible, false on timeout
+     */
+    public boolean waitForErrorMessage() {
+        return new WaitHelper(driver).isElementVisibleWithin(ERROR_MESSAGE, TimeoutConstants.SHORT_WAIT)
+            || isErrorMessageDisplayed();
+    }
+    
+    /**
+     * Waits for the result of a login attempt in a single wait.
+     * Resolves as soon as either the secure area is reached or the error banner appears.
+     * If neither shows in the page, the healed {@code errorMessage} element decides before giving up.
+     * 
+     * @return true if the user was logged in, false if the login was rejected
+     * @throws TimeoutException if neither outcome was reached
+     */
+    public boolean waitForLoginOutcome() {
+        try {
+            return new WaitHelper(driver).waitForAny(LOGGED_IN, LOGIN_REJECTED) == LOGGED_IN;
+        } catch (TimeoutException e) {
+            if (isErrorMessageDisplayed()) {
+                return false;
+            }
+            throw e;
+        }
+    }
 }
@@ -1,10 +1,12 @@
 package pages;
 
-import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
+import utils.CachingElementLocatorFactory;
+import utils.LocatorTemplate;
+import utils.PageSnapshot;
+import utils.WaitHelper;
 
 /**
  * Page Object for Product Page (Example E-commerce page)
@@ -12,6 +14,9 @@ import org.openqa.selenium.support.PageFactory;
  */
 public class ProductPage {
     
+    /** Search result by product name; built once per name */
+    private static final LocatorTemplate PRODUCT_BY_NAME = LocatorTemplate.xpath("//div[contains(text(),%s)]");
+    
     private WebDriver driver;
     
     // Page Elements
@@ -36,10 +41,16 @@ public class ProductPage {
     @FindBy(className = "cart-count")
     WebElement cartCount;
     
-    // Constructor
+    /**
+     * Constructor to initialize page elements with cached, stale-aware lookups.
+     * Waits until the product page elements are present, whatever the page load strategy.
+     * 
+     * @param driver WebDriver instance to interact with the browser
+     */
     public ProductPage(WebDriver driver) {
         this.driver = driver;
-        PageFactory.initElements(driver, this);
+        CachingElementLocatorFactory.initElements(driver, this);
+        new WaitHelper(driver).waitForPageReady(this);
     }
     
     // Page Actions
@@ -97,12 +108,18 @@ public class ProductPage {
      * @param productName - name of product to select
      */
     public void selectProduct(String productName) {
-        WebElement product = driver.findElement(
-            By.xpath("//div[contains(text(),'" + productName + "')]")
-        );
+        WebElement product = driver.findElement(PRODUCT_BY_NAME.with(productName));
         product.click();
     }
     
+    /**
+     * Read the product card and cart state in one round trip
+     * @return snapshot of productTitle, productPrice, addToCartButton and cartCount
+     */
+    public PageSnapshot getProductSnapshot() {
+        return PageSnapshot.of(driver, this, "productTitle", "productPrice", "addToCartButton", "cartCount");
+    }
+    
     /**
      * Check if product is displayed
      * @return true if product is visible
@@ -0,0 +1,209 @@
+package utils;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Reuses authenticated browser state across sessions.
+ * After one real UI login per site, user and password, the session cookies and
+ * local/session storage are captured together with the page the login landed
+ * on. Later sessions for the same credentials get that state injected and go
+ * straight to the landing page. If the site rejects the injected state (the
+ * landing page redirects elsewhere) or the state has expired, the entry is
+ * dropped and the UI login runs again. Entries live for
+ * {@code auth.cache.ttl.minutes} or until the first captured cookie expires.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class AuthSessionCache {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(AuthSessionCache.class);
+    
+    /** Reads storage as a plain object */
+    private static final String READ_STORAGE =
+        "var s = window[arguments[0]], o = {};"
+        + "for (var i = 0; i < s.length; i++) { var k = s.key(i); o[k] = s.getItem(k); }"
+        + "return o;";
+    
+    /** Writes a plain object into storage */
+    private static final String WRITE_STORAGE =
+        "var s = window[arguments[0]], o = arguments[1];"
+        + "for (var k in o) { s.setItem(k, o[k]); }";
+    
+    /** Captured state by site, user and password hash */
+    private static final Map<String, Entry> ENTRIES = new ConcurrentHashMap<>();
+    
+    /** Per-key locks so parallel threads share one real login; not monitors, so waiting virtual threads don't pin a carrier */
+    private static final Map<String, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+    
+    /**
+     * Authenticated state captured after a UI login.
+     */
+    private static final class Entry {
+        private final Set<Cookie> cookies;
+        private final Map<String, Object> localStorage;
+        private final Map<String, Object> sessionStorage;
+        private final String landingUrl;
+        private final long expiresAt;
+        
+        Entry(Set<Cookie> cookies, Map<String, Object> localStorage, Map<String, Object> sessionStorage,
+              String landingUrl, long expiresAt) {
+            this.cookies = cookies;
+            this.localStorage = localStorage;
+            this.sessionStorage = sessionStorage;
+            this.landingUrl = landingUrl;
+            this.expiresAt = expiresAt;
+        }
+    }
+    
+    /** Private constructor to prevent instantiation */
+    private AuthSessionCache() {
+        throw new IllegalStateException("Utility class");
+    }
+    
+    /**
+     * Logs the driver in, from cached state when possible.
+     * The driver must already be on a page of the site (e.g. the login page),
+     * so that cookies and storage can be set for its origin.
+     * 
+     * @param driver WebDriver instance
+     * @param username user to log in
+     * @param password password of the user
+     * @param uiLogin performs the real login and returns whether it succeeded
+     * @return true if the driver is logged in
+     */
+    public static boolean login(WebDriver driver, String username, String password, BooleanSupplier uiLogin) {
+        ConfigReader config = ConfigReader.getInstance();
+        if (!config.getBooleanProperty("auth.cache.enabled", true)) {
+            return uiLogin.getAsBoolean();
+        }
+        String siteUrl = driver.getCurrentUrl();
+        String key = keyOf(siteUrl, username, password);
+        
+        Entry entry = ENTRIES.get(key);
+        if (entry != null && restore(driver, entry)) {
+            LOG.info("Restored cached login for {}", username);
+            return true;
+        }
+        
+        ReentrantLock lock = LOCKS.computeIfAbsent(key, k -> new ReentrantLock());
+        lock.lock();
+        try {
+            // Another thread may have logged in while this one waited
+            Entry fresh = ENTRIES.get(key);
+            if (fresh != null && fresh != entry && restore(driver, fresh)) {
+                LOG.info("Restored cached login for {}", username);
+                return true;
+            }
+            if (entry != null || fresh != null) {
+                driver.manage().deleteAllCookies();
+                driver.get(siteUrl);
+            }
+            if (!uiLogin.getAsBoolean()) {
+                return false;
+            }
+            Duration ttl = Duration.ofMinutes(config.getIntProperty("auth.cache.ttl.minutes", 30));
+            ENTRIES.put(key, capture(driver, ttl));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Drops all cached state, e.g. after a test changes the password.
+     */
+    public static void clear() {
+        ENTRIES.clear();
+    }
+    
+    /**
+     * Injects cached state and opens the landing page.
+     * 
+     * @param driver WebDriver on the site's origin
+     * @param entry cached state
+     * @return true if the landing page accepted the state; otherwise the entry is dropped
+     */
+    private static boolean restore(WebDriver driver, Entry entry) {
+        if (System.currentTimeMillis() >= entry.expiresAt) {
+            ENTRIES.values().remove(entry);
+            return false;
+        }
+        try {
+            for (Cookie cookie : entry.cookies) {
+                driver.manage().addCookie(cookie);
+            }
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            js.executeScript(WRITE_STORAGE, "localStorage", entry.localStorage);
+            js.executeScript(WRITE_STORAGE, "sessionStorage", entry.sessionStorage);
+            driver.get(entry.landingUrl);
+            if (stripQuery(driver.getCurrentUrl()).equals(stripQuery(entry.landingUrl))) {
+                return true;
+            }
+            LOG.warn("Cached login rejected, falling back to UI login");
+        } catch (RuntimeException e) {
+            LOG.warn("Cached login could not be restored: {}", e.getMessage());
+        }
+        ENTRIES.values().remove(entry);
+        return false;
+    }
+    
+    /**
+     * Captures the state of a freshly logged-in driver.
+     * 
+     * @param driver logged-in WebDriver
+     * @param ttl maximum age of the entry
+     * @return captured state
+     */
+    @SuppressWarnings("unchecked")
+    private static Entry capture(WebDriver driver, Duration ttl) {
+        long expiresAt = System.currentTimeMillis() + ttl.toMillis();
+        Set<Cookie> cookies = new HashSet<>(driver.manage().getCookies());
+        for (Cookie cookie : cookies) {
+            Date expiry = cookie.getExpiry();
+            if (expiry != null) {
+                expiresAt = Math.min(expiresAt, expiry.getTime());
+            }
+        }
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        Map<String, Object> local = (Map<String, Object>) js.executeScript(READ_STORAGE, "localStorage");
+        Map<String, Object> session = (Map<String, Object>) js.executeScript(READ_STORAGE, "sessionStorage");
+        return new Entry(cookies, local, session, driver.getCurrentUrl(), expiresAt);
+    }
+    
+    /**
+     * Builds the cache key; the password is hashed so it is not kept in memory as text.
+     */
+    private static String keyOf(String siteUrl, String username, String password) {
+        String origin = siteUrl.replaceFirst("^(\\w+://[^/]+).*$", "$1");
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(password.getBytes(StandardCharsets.UTF_8));
+            return origin + "|" + username + "|" + HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * Removes query string and fragment from a URL.
+     */
+    private static String stripQuery(String url) {
+        return url.replaceFirst("[?#].*$", "");
+    }
+}
@@ -0,0 +1,290 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Locatable;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.DefaultElementLocator;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Element locator factory that caches resolved elements per page instance.
+ * Plain PageFactory proxies run findElement (through the healing driver) on every
+ * method call; with this factory each {@code @FindBy} field is looked up once and
+ * reused until it goes stale. A stale reference is detected on the command that
+ * uses it, so revalidation costs no extra round trip: the element is looked up
+ * again and the command retried once. Navigation is detected automatically on
+ * drivers decorated with {@link #trackNavigation(WebDriver)}, as DriverManager
+ * does for every session: get, back, forward, refresh, and clicks and submits
+ * that may load a new document all drop the cached elements of every page on
+ * that driver before their next use. On other drivers the stale retry alone
+ * catches navigation. {@link #invalidate()} remains for same-document changes
+ * the driver cannot see. Fields marked {@link NoCache} and list fields are
+ * looked up on every use.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class CachingElementLocatorFactory implements ElementLocatorFactory {
+    
+    /** Navigation counters of drivers decorated with {@link #trackNavigation(WebDriver)} */
+    private static final Map<SearchContext, AtomicLong> NAVIGATIONS = Collections.synchronizedMap(new WeakHashMap<>());
+    
+    /** Search context elements are located from */
+    private final SearchContext searchContext;
+    
+    /** Navigation counter of the search context, null if it is not tracked */
+    private final AtomicLong navigations;
+    
+    /** Caching locators created for this page instance */
+    private final List<CachingElementLocator> locators = new CopyOnWriteArrayList<>();
+    
+    /**
+     * Creates a factory for one page instance.
+     * 
+     * @param searchContext driver or element to locate from
+     */
+    public CachingElementLocatorFactory(SearchContext searchContext) {
+        this.searchContext = searchContext;
+        this.navigations = NAVIGATIONS.get(searchContext);
+    }
+    
+    /**
+     * Decorates a driver so page objects created on it drop their cached elements after navigation.
+     * 
+     * @param driver driver to decorate
+     * @return decorated driver, to be handed to page objects
+     */
+    public static WebDriver trackNavigation(WebDriver driver) {
+        AtomicLong navigations = new AtomicLong();
+        WebDriver decorated = new EventFiringDecorator<>(new NavigationListener(navigations)).decorate(driver);
+        NAVIGATIONS.put(decorated, navigations);
+        return decorated;
+    }
+    
+    /**
+     * Initializes a page object's {@code @FindBy} fields with caching, stale-aware proxies.
+     * 
+     * @param searchContext driver or element to locate from
+     * @param page page object to initialize
+     * @return the factory, used to invalidate the page's cache after same-document changes
+     */
+    public static CachingElementLocatorFactory initElements(SearchContext searchContext, Object page) {
+        CachingElementLocatorFactory factory = new CachingElementLocatorFactory(searchContext);
+        PageFactory.initElements(new StaleAwareFieldDecorator(factory), page);
+        return factory;
+    }
+    
+    @Override
+    public ElementLocator createLocator(Field field) {
+        if (field.isAnnotationPresent(NoCache.class)) {
+            return new DefaultElementLocator(searchContext, field);
+        }
+        CachingElementLocator locator = new CachingElementLocator(searchContext, new Annotations(field).buildBy(), navigations);
+        locators.add(locator);
+        return locator;
+    }
+    
+    /**
+     * Drops every cached element of this page, e.g. after a script replaces part of the document.
+     */
+    public void invalidate() {
+        for (CachingElementLocator locator : locators) {
+            locator.invalidate();
+        }
+    }
+    
+    /**
+     * Counts navigations on one driver.
+     */
+    static class NavigationListener implements WebDriverListener {
+        
+        /** Navigations seen on the driver */
+        private final AtomicLong navigations;
+        
+        NavigationListener(AtomicLong navigations) {
+            this.navigations = navigations;
+        }
+        
+        @Override
+        public void afterGet(WebDriver driver, String url) {
+            navigations.incrementAndGet();
+        }
+        
+        @Override
+        public void afterTo(WebDriver.Navigation navigation, String url) {
+            navigations.incrementAndGet();
+        }
+        
+        @Override
+        public void afterTo(WebDriver.Navigation navigation, URL url) {
+            navigations.incrementAndGet();
+        }
+        
+        @Override
+        public void afterBack(WebDriver.Navigation navigation) {
+            navigations.incrementAndGet();
+        }
+        
+        @Override
+        public void afterForward(WebDriver.Navigation navigation) {
+            navigations.incrementAndGet();
+        }
+        
+        @Override
+        public void afterRefresh(WebDriver.Navigation navigation) {
+            navigations.incrementAndGet();
+        }
+        
+        @Override
+        public void afterClick(WebElement element) {
+            navigations.incrementAndGet();
+        }
+        
+        @Override
+        public void afterSubmit(WebElement element) {
+            navigations.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Locator that keeps the first resolved element until the driver navigates or it is invalidated.
+     */
+    static class CachingElementLocator implements ElementLocator {
+        
+        /** Search context elements are located from */
+        private final SearchContext searchContext;
+        
+        /** Locator built from the field's annotations */
+        private final By by;
+        
+        /** Navigation counter of the search context, null if it is not tracked */
+        private final AtomicLong navigations;
+        
+        /** Cached element, null until first lookup or after invalidation */
+        private volatile WebElement cached;
+        
+        /** Navigation count when the element was cached */
+        private volatile long cachedAt;
+        
+        CachingElementLocator(SearchContext searchContext, By by, AtomicLong navigations) {
+            this.searchContext = searchContext;
+            this.by = by;
+            this.navigations = navigations;
+        }
+        
+        @Override
+        public WebElement findElement() {
+            long current = navigations == null ? 0 : navigations.get();
+            WebElement element = cached;
+            if (element == null || cachedAt != current) {
+                element = searchContext.findElement(by);
+                cachedAt = current;
+                cached = element;
+            }
+            return element;
+        }
+        
+        @Override
+        public List<WebElement> findElements() {
+            return searchContext.findElements(by);
+        }
+        
+        /**
+         * Drops the cached element so the next use looks it up again.
+         */
+        void invalidate() {
+            cached = null;
+        }
+        
+        @Override
+        public String toString() {
+            return "Caching locator for " + by;
+        }
+    }
+    
+    /**
+     * Field decorator whose element proxies retry once on a stale cached element.
+     */
+    static class StaleAwareFieldDecorator extends DefaultFieldDecorator {
+        
+        StaleAwareFieldDecorator(ElementLocatorFactory factory) {
+            super(factory);
+        }
+        
+        @Override
+        protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+            InvocationHandler handler = new StaleAwareElementHandler(locator);
+            return (WebElement) Proxy.newProxyInstance(
+                loader, new Class[] {WebElement.class, WrapsElement.class, Locatable.class}, handler);
+        }
+    }
+    
+    /**
+     * Proxy handler that resolves the element through its locator and, when a cached
+     * element turns out to be stale, invalidates it and retries the call once.
+     */
+    static class StaleAwareElementHandler implements InvocationHandler {
+        
+        /** Locator resolving the proxied element */
+        private final ElementLocator locator;
+        
+        StaleAwareElementHandler(ElementLocator locator) {
+            this.locator = locator;
+        }
+        
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            WebElement element;
+            try {
+                element = locator.findElement();
+            } catch (NoSuchElementException e) {
+                if ("toString".equals(method.getName())) {
+                    return "Proxy element for: " + locator;
+                }
+                throw e;
+            }
+            if ("getWrappedElement".equals(method.getName())) {
+                return element;
+            }
+            
+            try {
+                return method.invoke(element, args);
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof StaleElementReferenceException && locator instanceof CachingElementLocator) {
+                    ((CachingElementLocator) locator).invalidate();
+                    try {
+                        return method.invoke(locator.findElement(), args);
+                    } catch (InvocationTargetException retry) {
+                        throw retry.getCause();
+                    }
+                }
+                throw cause;
+            }
+        }
+    }
+}
@@ -1,46 +1,148 @@
 package utils;
 
+import constants.TimeoutConstants;
+
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
 
 /**
  * Configuration reader utility class.
- * Reads and provides access to test configuration from properties file.
+ * Provides an immutable, typed snapshot of the test configuration.
  * Centralizes configuration management for test execution parameters.
+ * The snapshot is loaded once per JVM from config.properties on the classpath,
+ * layered with environment variable and system property overrides, and shared
+ * across threads without locking.
+ * 
+ * Override precedence, highest first:
+ * system property ({@code -Dpool.size=4}), environment variable ({@code POOL_SIZE=4}),
+ * config.properties. Overrides also apply to keys config.properties does not list;
+ * system properties and environment variables are captured with the snapshot, so
+ * a property set later in the run does not change the configuration.
  * 
  * @author Carolina Steadham
  * @version 1.0
  */
-public class ConfigReader {
+public final class ConfigReader {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(ConfigReader.class);
+    
+    /** Configuration resource name on the classpath */
+    private static final String CONFIG_RESOURCE = "config.properties";
+    
+    /** Source-tree location used when the resource is not on the classpath */
+    private static final String CONFIG_FALLBACK_PATH = "/src/test/resources/config.properties";
+    
+    /** Immutable configuration key-value pairs */
+    private final Map<String, String> properties;
     
-    /** Properties object holding configuration key-value pairs */
-    private final Properties properties;
+    /** System properties at load time, for keys the file does not list */
+    private final Map<String, String> systemProperties;
+    
+    /** Environment variables at load time, for keys the file does not list */
+    private final Map<String, String> environment;
     
     /**
-     * Constructor that loads configuration from config.properties file.
-     * Properties file is located at src/test/resources/config.properties.
+     * Lazily-initialized holder; the JVM guarantees the snapshot is built once
+     * and safely published to every thread.
      */
-    public ConfigReader() {
-        properties = new Properties();
-        try {
-            String configPath = System.getProperty("user.dir") + "/src/test/resources/config.properties";
-            FileInputStream fis = new FileInputStream(configPath);
-            properties.load(fis);
-            fis.close();
-        } catch (IOException e) {
-            System.out.println("Config file not found: " + e.getMessage());
-        }
+    private static final class Holder {
+        private static final ConfigReader INSTANCE = load();
+    }
+    
+    /**
+     * Creates a snapshot from resolved properties and the overrides captured with them.
+     * 
+     * @param properties resolved key-value pairs
+     * @param systemProperties system properties at load time
+     * @param environment environment variables at load time
+     */
+    private ConfigReader(Map<String, String> properties, Map<String, String> systemProperties,
+                         Map<String, String> environment) {
+        this.properties = Collections.unmodifiableMap(properties);
+        this.systemProperties = Collections.unmodifiableMap(systemProperties);
+        this.environment = Collections.unmodifiableMap(environment);
+    }
+    
+    /**
+     * Returns the shared configuration snapshot, loading it on first use.
+     * 
+     * @return configuration snapshot
+     */
+    public static ConfigReader getInstance() {
+        return Holder.INSTANCE;
     }
     
     /**
      * Retrieves property value by key.
      * 
      * @param key property key
-     * @return property value
+     * @return property value, or null if not configured
      */
     public String getProperty(String key) {
-        return properties.getProperty(key);
+        return lookup(key);
+    }
+    
+    /**
+     * Retrieves property value by key, falling back to a default when missing.
+     * 
+     * @param key property key
+     * @param defaultValue value used when the property is absent
+     * @return property value
+     */
+    public String getProperty(String key, String defaultValue) {
+        String value = lookup(key);
+        return value != null ? value : defaultValue;
+    }
+    
+    /**
+     * Retrieves an integer property, falling back to a default when missing or invalid.
+     * 
+     * @param key property key
+     * @param defaultValue value used when the property is absent or not a number
+     * @return property value as int
+     */
+    public int getIntProperty(String key, int defaultValue) {
+        String value = lookup(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            LOG.warn("Invalid number for {}: {}", key, value);
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * Retrieves a boolean property, falling back to a default when missing.
+     * 
+     * @param key property key
+     * @param defaultValue value used when the property is absent
+     * @return property value as boolean
+     */
+    public boolean getBooleanProperty(String key, boolean defaultValue) {
+        String value = lookup(key);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+    
+    /**
+     * Retrieves a duration property configured in seconds.
+     * 
+     * @param key property key
+     * @param defaultSeconds value used when the property is absent or not a number
+     * @return property value as Duration
+     */
+    public Duration getSecondsProperty(String key, int defaultSeconds) {
+        return Duration.ofSeconds(getIntProperty(key, defaultSeconds));
     }
     
     /**
@@ -49,7 +151,7 @@ public class ConfigReader {
      * @return browser name (chrome, firefox, edge)
      */
     public String getBrowser() {
-        return properties.getProperty("browser");
+        return lookup("browser");
     }
     
     /**
@@ -58,7 +160,7 @@ public class ConfigReader {
      * @return application URL
      */
     public String getUrl() {
-        return properties.getProperty("url");
+        return lookup("url");
     }
     
     /**
@@ -67,7 +169,7 @@ public class ConfigReader {
      * @return username for login
      */
     public String getUsername() {
-        return properties.getProperty("username");
+        return lookup("username");
     }
     
     /**
@@ -76,6 +178,117 @@ public class ConfigReader {
      * @return password for login
      */
     public String getPassword() {
-        return properties.getProperty("password");
+        return lookup("password");
+    }
+    
+    /**
+     * Retrieves the implicit wait from configuration.
+     * 
+     * @return implicit wait, defaulting to {@link TimeoutConstants#IMPLICIT_WAIT}
+     */
+    public Duration getImplicitWait() {
+        return getSecondsProperty("implicit.wait", TimeoutConstants.IMPLICIT_WAIT);
+    }
+    
+    /**
+     * Retrieves the default explicit wait from configuration.
+     * 
+     * @return explicit wait, defaulting to {@link TimeoutConstants#MEDIUM_WAIT}
+     */
+    public Duration getExplicitWait() {
+        return getSecondsProperty("explicit.wait", TimeoutConstants.MEDIUM_WAIT);
+    }
+    
+    /**
+     * Retrieves the page load timeout from configuration.
+     * 
+     * @return page load timeout, defaulting to {@link TimeoutConstants#PAGE_LOAD_TIMEOUT}
+     */
+    public Duration getPageLoadTimeout() {
+        return getSecondsProperty("page.load.timeout", TimeoutConstants.PAGE_LOAD_TIMEOUT);
+    }
+    
+    /**
+     * Retrieves the page load strategy from configuration.
+     * 
+     * @return normal, eager or none; defaults to normal
+     */
+    public String getPageLoadStrategy() {
+        return getProperty("page.load.strategy", "normal");
+    }
+    
+    /**
+     * Loads config.properties and applies environment and system property overrides.
+     * 
+     * @return configuration snapshot
+     */
+    private static ConfigReader load() {
+        Map<String, String> systemProperties = new HashMap<>();
+        Properties system = System.getProperties();
+        for (String name : system.stringPropertyNames()) {
+            systemProperties.put(name, system.getProperty(name));
+        }
+        Map<String, String> environment = new HashMap<>(System.getenv());
+        
+        Properties file = new Properties();
+        try (InputStream in = openConfig()) {
+            if (in != null) {
+                file.load(in);
+            } else {
+                LOG.warn("Config file not found: {}", CONFIG_RESOURCE);
+            }
+        } catch (IOException e) {
+            LOG.warn("Config file not found: {}", e.getMessage());
+        }
+        
+        Map<String, String> resolved = new HashMap<>();
+        for (String key : file.stringPropertyNames()) {
+            String override = override(key, systemProperties, environment);
+            resolved.put(key, override != null ? override : file.getProperty(key).trim());
+        }
+        return new ConfigReader(resolved, systemProperties, environment);
+    }
+    
+    /**
+     * Resolves a key from the snapshot, or from the captured overrides for keys the file does not list.
+     * 
+     * @param key property key
+     * @return property value, or null if not configured anywhere
+     */
+    private String lookup(String key) {
+        String value = properties.get(key);
+        return value != null ? value : override(key, systemProperties, environment);
+    }
+    
+    /**
+     * Reads the system property or environment variable override for a key.
+     * 
+     * @param key property key; the environment variable is the key upper-cased with '.' and '-' as '_'
+     * @param systemProperties system properties captured at load time
+     * @param environment environment variables captured at load time
+     * @return trimmed override value, or null if neither is set
+     */
+    private static String override(String key, Map<String, String> systemProperties, Map<String, String> environment) {
+        String value = systemProperties.get(key);
+        if (value == null) {
+            value = environment.get(key.toUpperCase().replace('.', '_').replace('-', '_'));
+        }
+        return value != null ? value.trim() : null;
+    }
+    
+    /**
+     * Opens config.properties from the classpath, or from the source tree when
+     * running outside the test classpath (e.g. benchmarks).
+     * 
+     * @return input stream, or null if no configuration exists
+     * @throws IOException if the fallback file cannot be opened
+     */
+    private static InputStream openConfig() throws IOException {
+        InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(CONFIG_RESOURCE);
+        if (in != null) {
+            return in;
+        }
+        File fallback = new File(System.getProperty("user.dir") + CONFIG_FALLBACK_PATH);
+        return fallback.isFile() ? new FileInputStream(fallback) : null;
     }
 }
@@ -0,0 +1,258 @@
+package utils;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Driver binary resolution cache in front of WebDriverManager.
+ * Resolves each browser/driver pair once per JVM and persists the result to a
+ * local manifest keyed by browser version, so later sessions and later runs
+ * start without any version resolution and keep working on air-gapped agents.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class DriverBinaryResolver {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(DriverBinaryResolver.class);
+    
+    /** Manifest location, overridable with -Ddriver.manifest=path */
+    private static final String MANIFEST_FILE = System.getProperty("driver.manifest",
+        System.getProperty("user.home") + "/.cache/healenium-demo/driver-manifest.properties");
+    
+    /** Browser version used when --version cannot be read; never written to the manifest */
+    private static final String UNKNOWN_VERSION = "unknown";
+    
+    /** Matches a dotted version number in browser --version output */
+    private static final Pattern VERSION_PATTERN = Pattern.compile("(\\d+(?:\\.\\d+)+)");
+    
+    /** Driver paths already resolved in this JVM, keyed by browser name */
+    private static final Map<String, String> RESOLVED = new ConcurrentHashMap<>();
+    
+    /** One lock per browser, so a slow resolution blocks only callers of the same browser */
+    private static final Map<String, Object> LOCKS = new ConcurrentHashMap<>();
+    
+    /** Time spent resolving each browser in this JVM, in milliseconds */
+    private static final Map<String, Long> RESOLUTION_MILLIS = new ConcurrentHashMap<>();
+    
+    /** Private constructor to prevent instantiation */
+    private DriverBinaryResolver() {
+        throw new IllegalStateException("Utility class");
+    }
+    
+    /**
+     * Makes the driver binary for a browser available to Selenium.
+     * First call per JVM consults the manifest (warm) or WebDriverManager (cold);
+     * every later call is a map lookup.
+     * 
+     * @param browser name of browser (chrome, firefox, edge)
+     * @return absolute path of the driver binary
+     */
+    public static String resolve(String browser) {
+        String name = browser.toLowerCase();
+        String path = RESOLVED.get(name);
+        if (path != null) {
+            return path;
+        }
+        // Process and network work stays out of the map's compute functions
+        synchronized (LOCKS.computeIfAbsent(name, key -> new Object())) {
+            path = RESOLVED.get(name);
+            if (path == null) {
+                path = resolveOnce(name);
+                RESOLVED.put(name, path);
+            }
+            return path;
+        }
+    }
+    
+    /**
+     * Time the first resolution of a browser took in this JVM.
+     * 
+     * @param browser name of browser
+     * @return resolution time in milliseconds, or -1 if not resolved yet
+     */
+    public static long getResolutionMillis(String browser) {
+        return RESOLUTION_MILLIS.getOrDefault(browser.toLowerCase(), -1L);
+    }
+    
+    /**
+     * Resolves a driver binary, preferring the manifest over WebDriverManager.
+     * 
+     * @param browser lower-case browser name
+     * @return absolute path of the driver binary
+     */
+    private static String resolveOnce(String browser) {
+        long start = System.nanoTime();
+        String browserVersion = detectBrowserVersion(browser);
+        boolean versionKnown = !UNKNOWN_VERSION.equals(browserVersion);
+        String key = browser + "." + browserVersion;
+        
+        Properties manifest = loadManifest();
+        String cachedPath = versionKnown ? manifest.getProperty(key + ".path") : null;
+        String source;
+        String driverPath;
+        
+        if (cachedPath != null && new File(cachedPath).canExecute()) {
+            driverPath = cachedPath;
+            source = "warm, manifest";
+        } else {
+            try {
+                WebDriverManager wdm = WebDriverManager.getInstance(browser);
+                wdm.setup();
+                driverPath = wdm.getDownloadedDriverPath();
+                if (versionKnown) {
+                    manifest.setProperty(key + ".path", driverPath);
+                    manifest.setProperty(key + ".driverVersion", String.valueOf(wdm.getDownloadedDriverVersion()));
+                    manifest.setProperty(browser + ".latest", key);
+                    storeManifest(manifest);
+                    source = "cold, WebDriverManager";
+                } else {
+                    // A driver matched to an unknown browser version must not be reused by later runs
+                    source = "cold, WebDriverManager, not persisted";
+                }
+            } catch (RuntimeException e) {
+                // Offline agent: fall back to the last driver resolved for this browser
+                driverPath = fallbackPath(manifest, browser);
+                if (driverPath == null) {
+                    throw e;
+                }
+                String latestKey = manifest.getProperty(browser + ".latest");
+                LOG.warn("Offline fallback: using {} driver {} resolved for browser {} while the installed browser is {};"
+                    + " the session may fail if they are incompatible", browser,
+                    manifest.getProperty(latestKey + ".driverVersion", UNKNOWN_VERSION),
+                    latestKey.substring(browser.length() + 1), browserVersion);
+                source = "offline fallback, manifest";
+            }
+        }
+        
+        System.setProperty(driverSystemProperty(browser), driverPath);
+        long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        RESOLUTION_MILLIS.put(browser, millis);
+        LOG.info("Driver resolved [{} {}] in {}ms ({}): {}", browser, browserVersion, millis, source, driverPath);
+        return driverPath;
+    }
+    
+    /**
+     * Looks up the most recently resolved driver for a browser, regardless of version.
+     * 
+     * @param manifest loaded manifest
+     * @param browser lower-case browser name
+     * @return driver path if it still exists, otherwise null
+     */
+    private static String fallbackPath(Properties manifest, String browser) {
+        String latestKey = manifest.getProperty(browser + ".latest");
+        if (latestKey == null) {
+            return null;
+        }
+        String path = manifest.getProperty(latestKey + ".path");
+        return path != null && new File(path).canExecute() ? path : null;
+    }
+    
+    /**
+     * Detects the installed browser version by running the binary with --version.
+     * This is a local process call only; no network access is involved.
+     * 
+     * @param browser lower-case browser name
+     * @return dotted version, or {@link #UNKNOWN_VERSION} when it cannot be detected
+     */
+    private static String detectBrowserVersion(String browser) {
+        try {
+            Optional<Path> browserPath = WebDriverManager.getInstance(browser).getBrowserPath();
+            if (browserPath.isEmpty()) {
+                return UNKNOWN_VERSION;
+            }
+            Process process = new ProcessBuilder(browserPath.get().toString(), "--version")
+                .redirectErrorStream(true)
+                .start();
+            // The output is a single line, so the process can finish before it is read
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                LOG.warn("Could not detect {} version: --version did not exit within 5s", browser);
+                return UNKNOWN_VERSION;
+            }
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line = reader.readLine();
+                if (line != null) {
+                    Matcher matcher = VERSION_PATTERN.matcher(line);
+                    if (matcher.find()) {
+                        return matcher.group(1);
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Could not detect {} version: {}", browser, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return UNKNOWN_VERSION;
+    }
+    
+    /**
+     * Maps a browser to the system property Selenium reads the driver path from.
+     * 
+     * @param browser lower-case browser name
+     * @return driver system property name
+     */
+    private static String driverSystemProperty(String browser) {
+        switch (browser) {
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            default:
+                return "webdriver.chrome.driver";
+        }
+    }
+    
+    /**
+     * Reads the manifest from disk.
+     * 
+     * @return manifest properties, empty if the file does not exist yet
+     */
+    private static synchronized Properties loadManifest() {
+        Properties manifest = new Properties();
+        File file = new File(MANIFEST_FILE);
+        if (file.exists()) {
+            try (FileInputStream fis = new FileInputStream(file)) {
+                manifest.load(fis);
+            } catch (IOException e) {
+                LOG.warn("Error reading driver manifest: {}", e.getMessage());
+            }
+        }
+        return manifest;
+    }
+    
+    /**
+     * Writes the manifest to disk, merging with entries written by other browsers.
+     * 
+     * @param manifest manifest properties to persist
+     */
+    private static synchronized void storeManifest(Properties manifest) {
+        File file = new File(MANIFEST_FILE);
+        Properties merged = loadManifest();
+        merged.putAll(manifest);
+        file.getParentFile().mkdirs();
+        try (FileOutputStream fos = new FileOutputStream(file)) {
+            merged.store(fos, "Resolved WebDriver binaries");
+        } catch (IOException e) {
+            LOG.warn("Error writing driver manifest: {}", e.getMessage());
+        }
+    }
+}
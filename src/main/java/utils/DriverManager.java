@@ -1,117 +1,352 @@
 package utils;
 
 import com.epam.healenium.SelfHealingDriver;
-import io.github.bonigarcia.wdm.WebDriverManager;
-import org.apache.commons.io.FileUtils;
+import org.openqa.selenium.MutableCapabilities;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.SessionId;
+import org.openqa.selenium.support.events.EventFiringDecorator;
 
-import java.io.File;
-import java.io.IOException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 
 /**
  * WebDriver management utility class.
  * Manages WebDriver lifecycle including initialization, configuration, and cleanup.
  * Integrates Healenium self-healing capabilities by wrapping drivers.
+ * Each thread owns its own driver so tests can run in parallel without sharing sessions.
+ * Sessions are leased from a warm {@link DriverPool} per browser rather than launched per test.
+ * With {@code grid.enabled} sessions are created on Selenium Grid endpoints through {@link GridRouter}.
  * 
  * @author Carolina Steadham
  * @version 1.0
  */
 public class DriverManager {
     
-    /** Singleton WebDriver instance wrapped with Healenium */
-    private static WebDriver driver;
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(DriverManager.class);
+    
+    /** WebDriver instance owned by the calling thread, wrapped with Healenium */
+    private static final ThreadLocal<WebDriver> DRIVER = new ThreadLocal<>();
+    
+    /** Registry of every live driver keyed by owning thread, used for suite-level cleanup */
+    private static final Map<Thread, WebDriver> ACTIVE_DRIVERS = new ConcurrentHashMap<>();
+    
+    /** Browser driver under the healing and event decorators, keyed by the pooled driver */
+    private static final Map<WebDriver, WebDriver> DELEGATES = new ConcurrentHashMap<>();
+    
+    /** Warm session pools keyed by browser name */
+    private static final Map<String, DriverPool> POOLS = new ConcurrentHashMap<>();
+    
+    /** Private constructor to prevent instantiation */
+    private DriverManager() {
+        throw new IllegalStateException("Utility class");
+    }
     
     /**
-     * Initializes and returns a WebDriver instance for specified browser.
-     * Creates browser-specific driver with appropriate options and wraps it with Healenium.
-     * Implements singleton pattern to reuse same driver instance.
+     * Initializes and returns the WebDriver instance for the calling thread.
+     * Leases a Healenium-wrapped session from the browser's pool, launching one if none is idle.
+     * Reuses the same driver instance for repeated calls on the same thread.
      * 
      * @param browser name of browser (chrome, firefox, edge)
      * @return WebDriver instance wrapped with Healenium self-healing capabilities
      */
     public static WebDriver getDriver(String browser) {
+        WebDriver driver = DRIVER.get();
         if (driver == null) {
-            WebDriver delegate;
-            switch (browser.toLowerCase()) {
-                case "chrome":
-                    WebDriverManager.chromedriver().setup();
-                    ChromeOptions options = new ChromeOptions();
-                    options.addArguments("--start-maximized");
-                    options.addArguments("--disable-notifications");
-                    delegate = new ChromeDriver(options);
-                    break;
-                    
-                case "firefox":
-                    WebDriverManager.firefoxdriver().setup();
-                    delegate = new FirefoxDriver();
-                    delegate.manage().window().maximize();
-                    break;
-                    
-                case "edge":
-                    WebDriverManager.edgedriver().setup();
-                    delegate = new EdgeDriver();
-                    delegate.manage().window().maximize();
-                    break;
-                    
-                default:
-                    System.out.println("Browser not supported. Launching Chrome...");
-                    WebDriverManager.chromedriver().setup();
-                    delegate = new ChromeDriver();
-                    delegate.manage().window().maximize();
+            driver = getPool(browser).lease();
+            DRIVER.set(driver);
+            ACTIVE_DRIVERS.put(Thread.currentThread(), driver);
+        }
+        return driver;
+    }
+    
+    /**
+     * Returns the driver bound to the calling thread without creating one.
+     * 
+     * @return current thread's WebDriver, or null if none has been started
+     */
+    public static WebDriver getCurrentDriver() {
+        return DRIVER.get();
+    }
+    
+    /**
+     * Returns the session pool for a browser, creating it from the configuration on first use.
+     * 
+     * @param browser name of browser (chrome, firefox, edge)
+     * @return pool of sessions for that browser
+     */
+    public static DriverPool getPool(String browser) {
+        return POOLS.computeIfAbsent(browser.toLowerCase(), name -> {
+            ConfigReader config = ConfigReader.getInstance();
+            return new DriverPool(
+                () -> createDriver(name),
+                DELEGATES::remove,
+                config.getIntProperty("pool.size", 3),
+                config.getIntProperty("pool.max.reuse", 20),
+                config.getSecondsProperty("pool.lease.timeout", 120));
+        });
+    }
+    
+    /**
+     * Creates a new browser session wrapped with Healenium.
+     * 
+     * @param browser name of browser (chrome, firefox, edge)
+     * @return new SelfHealingDriver instance
+     */
+    private static WebDriver createDriver(String browser) {
+        ConfigReader config = ConfigReader.getInstance();
+        PageLoadStrategy loadStrategy = PageLoadStrategy.fromString(config.getPageLoadStrategy());
+        if (loadStrategy == null) {
+            LOG.warn("Unknown page.load.strategy '{}', using normal", config.getPageLoadStrategy());
+            loadStrategy = PageLoadStrategy.NORMAL;
+        }
+        
+        MutableCapabilities options = optionsFor(browser, loadStrategy);
+        WebDriver delegate;
+        if (config.getBooleanProperty("grid.enabled", false)) {
+            // Remote session on the least loaded grid endpoint; augmented so DevTools works where the grid allows it
+            delegate = new Augmenter().augment(GridRouter.getInstance().createSession(options));
+        } else {
+            if (options instanceof FirefoxOptions) {
+                DriverBinaryResolver.resolve("firefox");
+                delegate = new FirefoxDriver((FirefoxOptions) options);
+            } else if (options instanceof EdgeOptions) {
+                DriverBinaryResolver.resolve("edge");
+                delegate = new EdgeDriver((EdgeOptions) options);
+            } else {
+                DriverBinaryResolver.resolve("chrome");
+                delegate = new ChromeDriver((ChromeOptions) options);
             }
-            
-            // Wrap with Healenium SelfHealingDriver
-            driver = SelfHealingDriver.create(delegate);
         }
+        if (!"chrome".equalsIgnoreCase(browser)) {
+            delegate.manage().window().maximize();
+        }
+        delegate.manage().timeouts().pageLoadTimeout(config.getPageLoadTimeout());
+        
+        // Block resource classes the tests do not need, on the real browser
+        ResourceBlocker.attach(delegate);
+        
+        // Wrap with Healenium SelfHealingDriver; the in-memory switch decides per thread whether finds heal
+        WebDriver driver = new HealingToggleDecorator().decorate(SelfHealingDriver.create(delegate));
+        
+        // Time finds on the healing driver so latency includes any healing
+        if (config.getBooleanProperty("find.latency.enabled", true)) {
+            driver = new EventFiringDecorator<>(FindLatencyRecorder.getInstance()).decorate(driver);
+        }
+        
+        // Page objects drop cached elements when this session navigates
+        driver = CachingElementLocatorFactory.trackNavigation(driver);
+        DELEGATES.put(driver, delegate);
         return driver;
     }
     
     /**
-     * Quits the browser and closes all windows.
-     * Resets the driver instance to null for clean state.
+     * Builds the browser options shared by local and grid sessions.
+     * 
+     * @param browser name of browser (chrome, firefox, edge)
+     * @param loadStrategy page load strategy
+     * @return browser options
+     */
+    private static MutableCapabilities optionsFor(String browser, PageLoadStrategy loadStrategy) {
+        switch (browser.toLowerCase()) {
+            case "chrome":
+                ChromeOptions options = new ChromeOptions();
+                options.addArguments("--start-maximized");
+                options.addArguments("--disable-notifications");
+                options.setPageLoadStrategy(loadStrategy);
+                // Keep the browser console for failure bundles
+                LoggingPreferences logging = new LoggingPreferences();
+                logging.enable(LogType.BROWSER, Level.ALL);
+                options.setCapability(ChromeOptions.LOGGING_PREFS, logging);
+                return options;
+                
+            case "firefox":
+                return new FirefoxOptions().setPageLoadStrategy(loadStrategy);
+                
+            case "edge":
+                EdgeOptions edgeOptions = new EdgeOptions();
+                edgeOptions.setPageLoadStrategy(loadStrategy);
+                return edgeOptions;
+                
+            default:
+                LOG.warn("Browser not supported. Launching Chrome...");
+                ChromeOptions defaultOptions = new ChromeOptions();
+                defaultOptions.setPageLoadStrategy(loadStrategy);
+                return defaultOptions;
+        }
+    }
+    
+    /**
+     * Returns the calling thread's session to its pool after scrubbing its state.
+     * The browser stays running for the next test.
+     */
+    public static void releaseDriver() {
+        WebDriver driver = unbind();
+        if (driver != null) {
+            poolOf(driver).release(driver);
+        }
+    }
+    
+    /**
+     * Quits the calling thread's browser and closes all its windows.
+     * Sessions owned by other threads are left untouched.
      */
     public static void quitDriver() {
+        WebDriver driver = unbind();
         if (driver != null) {
-            driver.quit();
-            driver = null;
+            DriverPool pool = poolOf(driver);
+            if (pool != null) {
+                pool.discard(driver);
+            } else {
+                driver.quit();
+            }
+        }
+    }
+    
+    /**
+     * Quits every driver still registered by any thread and shuts down all pools.
+     * Intended for suite-level cleanup after all tests have finished.
+     */
+    public static void quitAllDrivers() {
+        List<Thread> owners = new ArrayList<>(ACTIVE_DRIVERS.keySet());
+        for (Thread owner : owners) {
+            WebDriver driver = ACTIVE_DRIVERS.remove(owner);
+            if (driver != null) {
+                try {
+                    DriverPool pool = poolOf(driver);
+                    if (pool != null) {
+                        pool.discard(driver);
+                    } else {
+                        driver.quit();
+                    }
+                } catch (Exception e) {
+                    LOG.warn("Failed to quit driver for {}: {}", owner.getName(), e.getMessage());
+                }
+            }
+        }
+        DRIVER.remove();
+        
+        for (Map.Entry<String, DriverPool> entry : POOLS.entrySet()) {
+            LOG.info("Driver pool [{}] {}", entry.getKey(), entry.getValue().getStats());
+            entry.getValue().shutdown();
+        }
+        POOLS.clear();
+        GridRouter.logStats();
+    }
+    
+    /**
+     * Removes the calling thread's driver from the registry.
+     * 
+     * @return the driver that was bound, or null
+     */
+    private static WebDriver unbind() {
+        WebDriver driver = DRIVER.get();
+        DRIVER.remove();
+        ACTIVE_DRIVERS.remove(Thread.currentThread());
+        return driver;
+    }
+    
+    /**
+     * Finds the pool that leased a driver.
+     * 
+     * @param driver leased session
+     * @return owning pool, or null if the driver was not pooled
+     */
+    private static DriverPool poolOf(WebDriver driver) {
+        for (DriverPool pool : POOLS.values()) {
+            if (pool.owns(driver)) {
+                return pool;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Returns the number of sessions currently open across all threads.
+     * 
+     * @return count of active drivers
+     */
+    public static int getActiveDriverCount() {
+        return ACTIVE_DRIVERS.size();
+    }
+    
+    /**
+     * Gets the browser driver under the healing and event decorators.
+     * Pooled drivers are decorator proxies rather than SelfHealingDriver instances,
+     * so every unwrap goes through the mapping recorded when the session was created.
+     * 
+     * @param driver pooled driver, a SelfHealingDriver, or a plain driver
+     * @return the underlying browser driver, or the driver itself if it is not wrapped
+     */
+    public static WebDriver getDelegate(WebDriver driver) {
+        if (driver == null) {
+            return null;
+        }
+        WebDriver delegate = DELEGATES.get(driver);
+        if (delegate != null) {
+            return delegate;
+        }
+        if (driver instanceof SelfHealingDriver) {
+            return ((SelfHealingDriver) driver).getDelegate();
+        }
+        return driver;
+    }
+    
+    /**
+     * Gets the WebDriver session id of a driver, for tagging logs.
+     * 
+     * @param driver pooled driver or browser driver
+     * @return session id, or null if the driver has none
+     */
+    public static String getSessionId(WebDriver driver) {
+        driver = getDelegate(driver);
+        if (driver instanceof RemoteWebDriver) {
+            SessionId sessionId = ((RemoteWebDriver) driver).getSessionId();
+            return sessionId == null ? null : sessionId.toString();
         }
+        return null;
     }
     
     /**
-     * Captures screenshot and saves to screenshots directory.
-     * Handles SelfHealingDriver by extracting delegate for screenshot capability.
+     * Captures screenshot of the calling thread's session and queues it for the screenshots directory.
+     * Uses the browser driver under the healing and event decorators.
      * 
      * @param testName name of the test for screenshot filename
-     * @return path where screenshot is saved
+     * @return path where screenshot is (or will be) saved, or null if the thread has no driver
      */
     public static String takeScreenshot(String testName) {
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-        String screenshotName = testName + "_" + timestamp + ".png";
-        
-        // Handle SelfHealingDriver - get the delegate driver for screenshots
-        WebDriver screenshotDriver = driver;
-        if (driver instanceof SelfHealingDriver) {
-            screenshotDriver = ((SelfHealingDriver) driver).getDelegate();
+        WebDriver driver = DRIVER.get();
+        if (driver == null) {
+            LOG.warn("No driver bound to {}, screenshot skipped", Thread.currentThread().getName());
+            return null;
         }
         
-        File srcFile = ((TakesScreenshot) screenshotDriver).getScreenshotAs(OutputType.FILE);
-        String screenshotPath = System.getProperty("user.dir") + "/screenshots/" + screenshotName;
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+        String screenshotName = testName + "_" + timestamp + "_" + Thread.currentThread().threadId();
         
-        try {
-            FileUtils.copyFile(srcFile, new File(screenshotPath));
-            System.out.println("Screenshot saved: " + screenshotPath);
-        } catch (IOException e) {
-            System.out.println("Failed to save screenshot: " + e.getMessage());
-        }
+        // Screenshots go to the browser driver under the decorators
+        WebDriver screenshotDriver = getDelegate(driver);
         
-        return screenshotPath;
+        // Capture in memory; encoding and disk I/O happen on the writer thread
+        byte[] png = ((TakesScreenshot) screenshotDriver).getScreenshotAs(OutputType.BYTES);
+        return ScreenshotWriter.getInstance().submit(screenshotName, png).toString();
     }
 }
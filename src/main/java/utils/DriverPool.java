@@ -0,0 +1,428 @@
+package utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of pre-launched, Healenium-wrapped browser sessions.
+ * Sessions are leased per test and scrubbed on return (windows, cookies,
+ * local/session storage, about:blank) instead of being quit, so tests do not
+ * pay a full browser launch each time. Sessions that fail a health check or
+ * exceed the maximum reuse count are evicted and replaced on demand.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class DriverPool {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(DriverPool.class);
+    
+    /** Page every returned session is parked on */
+    private static final String BLANK_PAGE = "about:blank";
+    
+    /** Script clearing web storage of the page currently loaded */
+    private static final String CLEAR_STORAGE_SCRIPT =
+        "try { window.localStorage.clear(); } catch (e) {}"
+        + "try { window.sessionStorage.clear(); } catch (e) {}";
+    
+    /** Factory that launches a new healing-wrapped session */
+    private final Supplier<WebDriver> factory;
+    
+    /** Told about every session the pool quits */
+    private final Consumer<WebDriver> onEvict;
+    
+    /** Maximum number of sessions alive at once */
+    private final int maxSize;
+    
+    /** Maximum number of leases a session serves before being recycled */
+    private final int maxReuse;
+    
+    /** Maximum time a test waits for a free session */
+    private final Duration leaseTimeout;
+    
+    /** Sessions ready to be leased, most recently returned first */
+    private final BlockingDeque<WebDriver> idle = new LinkedBlockingDeque<>();
+    
+    /** One permit per session that may be leased concurrently */
+    private final Semaphore permits;
+    
+    /** Number of leases served by each live session */
+    private final Map<WebDriver, AtomicInteger> useCounts = new ConcurrentHashMap<>();
+    
+    /** Number of sessions currently alive (idle + leased) */
+    private final AtomicInteger liveSessions = new AtomicInteger();
+    
+    /** Pool statistics */
+    private final AtomicLong leases = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong launches = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong totalLeaseWaitNanos = new AtomicLong();
+    private final AtomicLong maxLeaseWaitNanos = new AtomicLong();
+    private final AtomicLong totalLaunchNanos = new AtomicLong();
+    
+    /** Threads currently queued for a session, and the most seen at once */
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final AtomicInteger peakWaiters = new AtomicInteger();
+    
+    /** Time the calling thread waited for its latest lease */
+    private final ThreadLocal<Long> lastLeaseWaitNanos = ThreadLocal.withInitial(() -> 0L);
+    
+    /**
+     * Creates a pool backed by the given session factory.
+     * 
+     * @param factory launches a new healing-wrapped session
+     * @param maxSize maximum number of sessions alive at once
+     * @param maxReuse maximum number of leases per session before eviction
+     * @param leaseTimeout maximum time to wait for a free session
+     */
+    public DriverPool(Supplier<WebDriver> factory, int maxSize, int maxReuse, Duration leaseTimeout) {
+        this(factory, driver -> { }, maxSize, maxReuse, leaseTimeout);
+    }
+    
+    /**
+     * Creates a pool backed by the given session factory that reports evicted sessions.
+     * 
+     * @param factory launches a new healing-wrapped session
+     * @param onEvict called with every session the pool quits
+     * @param maxSize maximum number of sessions alive at once
+     * @param maxReuse maximum number of leases per session before eviction
+     * @param leaseTimeout maximum time to wait for a free session
+     */
+    public DriverPool(Supplier<WebDriver> factory, Consumer<WebDriver> onEvict, int maxSize, int maxReuse,
+                      Duration leaseTimeout) {
+        if (maxSize < 1 || maxReuse < 1) {
+            throw new IllegalArgumentException("Pool size and max reuse must be at least 1");
+        }
+        this.factory = factory;
+        this.onEvict = onEvict;
+        this.maxSize = maxSize;
+        this.maxReuse = maxReuse;
+        this.leaseTimeout = leaseTimeout;
+        this.permits = new Semaphore(maxSize, true);
+    }
+    
+    /**
+     * Pre-launches sessions so the first tests do not pay the launch cost.
+     * Sessions are launched concurrently; one that fails to start is logged and left to lazy launch.
+     * 
+     * @param count number of sessions to launch, capped at the pool size
+     */
+    public void warmUp(int count) {
+        int missing = Math.min(count, maxSize) - liveSessions.get();
+        List<Future<WebDriver>> launching = new ArrayList<>();
+        try (ExecutorService launcher = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < missing; i++) {
+                launching.add(launcher.submit(this::launch));
+            }
+        }
+        for (Future<WebDriver> session : launching) {
+            try {
+                idle.offerLast(session.get());
+            } catch (ExecutionException e) {
+                LOG.warn("Warm-up launch failed: {}", e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Leases a session, reusing an idle healthy one when available.
+     * Blocks while all sessions are in use, up to the lease timeout.
+     * 
+     * @return a clean session parked on about:blank
+     */
+    public WebDriver lease() {
+        long waitStart = System.nanoTime();
+        try {
+            // Timed tryAcquire honours fairness even with a zero timeout; the untimed one would barge
+            boolean acquired = permits.tryAcquire(0, TimeUnit.MILLISECONDS);
+            if (!acquired) {
+                peakWaiters.accumulateAndGet(waiters.incrementAndGet(), Math::max);
+                try {
+                    acquired = permits.tryAcquire(leaseTimeout.toMillis(), TimeUnit.MILLISECONDS);
+                } finally {
+                    waiters.decrementAndGet();
+                }
+            }
+            if (!acquired) {
+                throw new IllegalStateException("No browser session available within " + leaseTimeout.toSeconds() + "s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a browser session", e);
+        }
+        long waited = System.nanoTime() - waitStart;
+        lastLeaseWaitNanos.set(waited);
+        recordLeaseWait(waited);
+        leases.incrementAndGet();
+        
+        try {
+            WebDriver driver;
+            while ((driver = idle.pollFirst()) != null) {
+                if (isHealthy(driver)) {
+                    hits.incrementAndGet();
+                    useCounts.get(driver).incrementAndGet();
+                    return driver;
+                }
+                evict(driver);
+            }
+            driver = launch();
+            useCounts.get(driver).incrementAndGet();
+            return driver;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+    
+    /**
+     * Returns a leased session to the pool after scrubbing its state.
+     * Sessions that cannot be scrubbed or have reached the reuse limit are evicted.
+     * 
+     * @param driver session previously obtained from {@link #lease()}
+     */
+    public void release(WebDriver driver) {
+        AtomicInteger uses = useCounts.get(driver);
+        if (uses == null) {
+            return;
+        }
+        try {
+            if (uses.get() >= maxReuse || liveSessions.get() > maxSize || !scrub(driver)) {
+                evict(driver);
+            } else {
+                idle.offerFirst(driver);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+    
+    /**
+     * Quits a leased session instead of returning it, e.g. after a browser crash.
+     * 
+     * @param driver session previously obtained from {@link #lease()}
+     */
+    public void discard(WebDriver driver) {
+        if (useCounts.containsKey(driver)) {
+            evict(driver);
+            permits.release();
+        }
+    }
+    
+    /**
+     * Checks whether a session was launched by this pool and is still alive.
+     * 
+     * @param driver session to check
+     * @return true if the pool owns the session
+     */
+    public boolean owns(WebDriver driver) {
+        return useCounts.containsKey(driver);
+    }
+    
+    /**
+     * Quits every idle session. Leased sessions are quit when they are released or discarded.
+     */
+    public void shutdown() {
+        List<WebDriver> drained = new ArrayList<>();
+        idle.drainTo(drained);
+        for (WebDriver driver : drained) {
+            evict(driver);
+        }
+    }
+    
+    /**
+     * Launches a new session and registers it with the pool.
+     * 
+     * @return new session
+     */
+    private WebDriver launch() {
+        long start = System.nanoTime();
+        WebDriver driver = factory.get();
+        totalLaunchNanos.addAndGet(System.nanoTime() - start);
+        launches.incrementAndGet();
+        liveSessions.incrementAndGet();
+        useCounts.put(driver, new AtomicInteger());
+        return driver;
+    }
+    
+    /**
+     * Quits a session and removes it from the pool.
+     * 
+     * @param driver session to evict
+     */
+    private void evict(WebDriver driver) {
+        if (useCounts.remove(driver) == null) {
+            return;
+        }
+        liveSessions.decrementAndGet();
+        evictions.incrementAndGet();
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            LOG.warn("Failed to quit evicted session: {}", e.getMessage());
+        } finally {
+            onEvict.accept(driver);
+        }
+    }
+    
+    /**
+     * Cheap liveness probe - a dead browser fails to report its window handle.
+     * 
+     * @param driver session to check
+     * @return true if the session responds
+     */
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Resets browser state so the next lease starts clean.
+     * Closes extra windows, clears cookies and web storage and parks on about:blank.
+     * 
+     * @param driver session to scrub
+     * @return true if the session was scrubbed successfully
+     */
+    private boolean scrub(WebDriver driver) {
+        try {
+            List<String> handles = new ArrayList<>(driver.getWindowHandles());
+            for (int i = 1; i < handles.size(); i++) {
+                driver.switchTo().window(handles.get(i)).close();
+            }
+            driver.switchTo().window(handles.get(0));
+            
+            driver.manage().deleteAllCookies();
+            if (driver instanceof JavascriptExecutor) {
+                ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+            }
+            driver.get(BLANK_PAGE);
+            return true;
+        } catch (Exception e) {
+            LOG.warn("Session scrub failed, evicting: {}", e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Accumulates lease wait time and tracks the worst case.
+     * 
+     * @param nanos time spent waiting for a permit
+     */
+    private void recordLeaseWait(long nanos) {
+        totalLeaseWaitNanos.addAndGet(nanos);
+        maxLeaseWaitNanos.accumulateAndGet(nanos, Math::max);
+    }
+    
+    /**
+     * Fraction of leases served by an already running session.
+     * 
+     * @return hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long total = leases.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+    
+    /**
+     * Average time tests waited for a free session.
+     * 
+     * @return average lease wait in milliseconds
+     */
+    public double getAverageLeaseWaitMillis() {
+        long total = leases.get();
+        return total == 0 ? 0 : totalLeaseWaitNanos.get() / 1_000_000.0 / total;
+    }
+    
+    /**
+     * Time the calling thread waited for its most recent lease.
+     * 
+     * @return lease wait in milliseconds
+     */
+    public long getLastLeaseWaitMillis() {
+        return lastLeaseWaitNanos.get() / 1_000_000;
+    }
+    
+    /**
+     * Most threads queued for a session at the same time.
+     * 
+     * @return peak number of waiting lease requests
+     */
+    public int getPeakWaiters() {
+        return peakWaiters.get();
+    }
+    
+    /**
+     * Longest time a test waited for a free session.
+     * 
+     * @return maximum lease wait in milliseconds
+     */
+    public double getMaxLeaseWaitMillis() {
+        return maxLeaseWaitNanos.get() / 1_000_000.0;
+    }
+    
+    /**
+     * Average time to launch and wrap a new session.
+     * 
+     * @return average launch time in milliseconds
+     */
+    public double getAverageLaunchMillis() {
+        long total = launches.get();
+        return total == 0 ? 0 : totalLaunchNanos.get() / 1_000_000.0 / total;
+    }
+    
+    /**
+     * Number of sessions launched since the pool was created.
+     * 
+     * @return launch count
+     */
+    public long getLaunchCount() {
+        return launches.get();
+    }
+    
+    /**
+     * Number of sessions evicted since the pool was created.
+     * 
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+    
+    /**
+     * Human-readable summary of pool statistics for sizing.
+     * 
+     * @return statistics line
+     */
+    public String getStats() {
+        return String.format(
+            "leases=%d hitRate=%.2f launches=%d avgLaunch=%.0fms evictions=%d avgLeaseWait=%.0fms maxLeaseWait=%.0fms peakWaiters=%d live=%d idle=%d",
+            leases.get(), getHitRate(), launches.get(), getAverageLaunchMillis(), evictions.get(),
+            getAverageLeaseWaitMillis(), getMaxLeaseWaitMillis(), peakWaiters.get(), liveSessions.get(), idle.size());
+    }
+}
@@ -0,0 +1,360 @@
+package utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded, in-JVM stand-in for hlm-backend and the selector imitator.
+ * Implements the endpoints the healenium-web client calls (selector baselines,
+ * healing results, report session, selector settings, health, imitate) on top of an
+ * in-memory store that can be persisted to a JSON file. Lets healing-enabled
+ * runs start without Docker and gives a zero-network baseline for find latency.
+ * Unknown endpoints answer with an empty JSON object so the client never fails.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class EmbeddedHealingBackend {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(EmbeddedHealingBackend.class);
+    
+    /** JSON codec shipped with Selenium */
+    private static final Json JSON = new Json();
+    
+    /** Local HTTP server */
+    private final HttpServer server;
+    
+    /** Daemon threads serving requests, shut down on {@link #stop()} */
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "embedded-healing-backend");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    /** File the store is persisted to, null for in-memory only */
+    private final Path storeFile;
+    
+    /** Selector baselines keyed by locator + page URL */
+    private final Map<String, Object> selectors = new ConcurrentHashMap<>();
+    
+    /** Healing results in arrival order */
+    private final List<Object> healings = Collections.synchronizedList(new ArrayList<>());
+    
+    /** Request count and total handling time per endpoint */
+    private final Map<String, AtomicLong[]> endpointStats = new ConcurrentHashMap<>();
+    
+    /**
+     * Creates a stand-in backend; call {@link #start()} to begin serving.
+     * 
+     * @param port local port to listen on, 0 for any free port
+     * @param storeFile JSON file to load and persist the store, or null for in-memory only
+     * @throws IOException if the port cannot be bound
+     */
+    public EmbeddedHealingBackend(int port, Path storeFile) throws IOException {
+        this.storeFile = storeFile;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        load();
+    }
+    
+    /**
+     * Starts serving requests.
+     */
+    public void start() {
+        server.start();
+        LOG.info("Embedded healing backend on {}", getUrl());
+    }
+    
+    /**
+     * Stops serving, persists the store and prints per-endpoint latency.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+        persist();
+        endpointStats.forEach((endpoint, stats) -> LOG.info("Embedded backend {}: requests={} avg={}ms",
+            endpoint, stats[0].get(),
+            String.format("%.2f", stats[0].get() == 0 ? 0 : stats[1].get() / 1_000_000.0 / stats[0].get())));
+    }
+    
+    /**
+     * Base URL to use as hlm.server.url and hlm.imitator.url.
+     * 
+     * @return local backend URL
+     */
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+    
+    /**
+     * Number of selector baselines stored.
+     * 
+     * @return baseline count
+     */
+    public int getSelectorCount() {
+        return selectors.size();
+    }
+    
+    /**
+     * Number of healing results stored.
+     * 
+     * @return healing count
+     */
+    public int getHealingCount() {
+        return healings.size();
+    }
+    
+    /**
+     * Dispatches a request to the matching endpoint.
+     * 
+     * @param exchange HTTP exchange
+     */
+    private void handle(HttpExchange exchange) {
+        long start = System.nanoTime();
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String endpoint = method + " " + normalize(path);
+        try {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            Object response;
+            
+            if (path.endsWith("/health")) {
+                response = Map.of("status", "UP");
+            } else if (path.endsWith("/imitate")) {
+                response = imitate(body);
+            } else if (path.startsWith("/healenium/selector")) {
+                response = "GET".equals(method) ? findSelector(exchange.getRequestURI()) : saveSelector(body);
+            } else if (path.startsWith("/healenium/healing")) {
+                if (!body.isEmpty()) {
+                    healings.add(JSON.toType(body, Object.class));
+                    HealingEvents.publish(body);
+                }
+                response = Collections.emptyMap();
+            } else if (path.startsWith("/healenium/report/init")) {
+                response = path.substring(path.lastIndexOf('/') + 1);
+            } else if (path.startsWith("/healenium/elements")) {
+                response = Map.of("enableHealingElements", List.of(), "disableHealingElements", List.of());
+            } else {
+                response = Collections.emptyMap();
+            }
+            
+            if (response == null) {
+                send(exchange, 404, "");
+            } else {
+                send(exchange, 200, JSON.toJson(response));
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Embedded backend error on {}: {}", endpoint, e.getMessage());
+            try {
+                send(exchange, 500, JSON.toJson(Map.of("error", String.valueOf(e.getMessage()))));
+            } catch (IOException ignored) {
+                // client already gone
+            }
+        } finally {
+            exchange.close();
+            AtomicLong[] stats = endpointStats.computeIfAbsent(endpoint, k -> new AtomicLong[] {new AtomicLong(), new AtomicLong()});
+            stats[0].incrementAndGet();
+            stats[1].addAndGet(System.nanoTime() - start);
+        }
+    }
+    
+    /**
+     * Stores one or more selector baselines.
+     * 
+     * @param body request body with a selector object or a list of them
+     * @return empty response
+     */
+    private Object saveSelector(String body) {
+        if (body.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Object parsed = JSON.toType(body, Object.class);
+        List<?> items = parsed instanceof List ? (List<?>) parsed : List.of(parsed);
+        for (Object item : items) {
+            if (item instanceof Map) {
+                Map<?, ?> selector = (Map<?, ?>) item;
+                selectors.put(key(selector.get("locator"), selector.get("url")), selector);
+            }
+        }
+        return Collections.emptyMap();
+    }
+    
+    /**
+     * Looks up a stored selector baseline from query parameters.
+     * 
+     * @param uri request URI with locator and url parameters
+     * @return stored baseline, or null if none
+     */
+    private Object findSelector(URI uri) {
+        Map<String, String> params = queryParams(uri);
+        return selectors.get(key(params.get("locator"), params.get("url")));
+    }
+    
+    /**
+     * Minimal selector imitator: proposes an id or class based CSS selector for each node sent.
+     * 
+     * @param body imitate request
+     * @return list of suggested locators
+     */
+    private Object imitate(String body) {
+        List<Map<String, String>> suggestions = new ArrayList<>();
+        if (body.isEmpty()) {
+            return suggestions;
+        }
+        collectSuggestions(JSON.toType(body, Object.class), suggestions);
+        return suggestions;
+    }
+    
+    /**
+     * Walks an imitate request and turns every node with an id or classes into a CSS selector.
+     * 
+     * @param node parsed JSON value
+     * @param suggestions output list
+     */
+    private void collectSuggestions(Object node, List<Map<String, String>> suggestions) {
+        if (node instanceof List) {
+            for (Object child : (List<?>) node) {
+                collectSuggestions(child, suggestions);
+            }
+        } else if (node instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) node;
+            Object tag = map.get("tag");
+            Object id = map.get("id");
+            if (tag != null && id instanceof String && !((String) id).isEmpty()) {
+                suggestions.add(locator("By.cssSelector", tag + "#" + id));
+            } else if (tag != null && map.get("classes") instanceof List && !((List<?>) map.get("classes")).isEmpty()) {
+                StringBuilder css = new StringBuilder(tag.toString());
+                for (Object cls : (List<?>) map.get("classes")) {
+                    css.append('.').append(cls);
+                }
+                suggestions.add(locator("By.cssSelector", css.toString()));
+            }
+            for (Object value : map.values()) {
+                if (value instanceof List || value instanceof Map) {
+                    collectSuggestions(value, suggestions);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Builds a locator suggestion in the imitator's response shape.
+     */
+    private static Map<String, String> locator(String type, String value) {
+        Map<String, String> locator = new LinkedHashMap<>();
+        locator.put("type", type);
+        locator.put("value", value);
+        return locator;
+    }
+    
+    /**
+     * Builds the store key for a selector baseline.
+     */
+    private static String key(Object locator, Object url) {
+        return locator + "|" + url;
+    }
+    
+    /**
+     * Collapses path parameters so statistics group by endpoint.
+     */
+    private static String normalize(String path) {
+        return path.startsWith("/healenium/report/init") ? "/healenium/report/init/{id}" : path;
+    }
+    
+    /**
+     * Parses URL-encoded query parameters.
+     */
+    private static Map<String, String> queryParams(URI uri) {
+        Map<String, String> params = new HashMap<>();
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+    
+    /**
+     * Writes a JSON response.
+     */
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+    
+    /**
+     * Loads a previously persisted store.
+     */
+    private void load() {
+        if (storeFile == null || !Files.isRegularFile(storeFile)) {
+            return;
+        }
+        try {
+            Map<?, ?> stored = JSON.toType(Files.readString(storeFile), Map.class);
+            if (stored.get("selectors") instanceof Map) {
+                ((Map<?, ?>) stored.get("selectors")).forEach((k, v) -> selectors.put(String.valueOf(k), v));
+            }
+            if (stored.get("healings") instanceof List) {
+                healings.addAll((List<?>) stored.get("healings"));
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Failed to load embedded backend store: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Writes the store to its JSON file.
+     */
+    private void persist() {
+        if (storeFile == null) {
+            return;
+        }
+        try {
+            if (storeFile.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(storeFile.toAbsolutePath().getParent());
+            }
+            Map<String, Object> stored = new LinkedHashMap<>();
+            stored.put("selectors", new HashMap<>(selectors));
+            synchronized (healings) {
+                stored.put("healings", new ArrayList<>(healings));
+            }
+            Files.writeString(storeFile, JSON.toJson(stored));
+        } catch (IOException e) {
+            LOG.warn("Failed to persist embedded backend store: {}", e.getMessage());
+        }
+    }
+}
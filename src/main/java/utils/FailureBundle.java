@@ -0,0 +1,347 @@
+package utils;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Collects diagnostics for a failed test into one zip archive.
+ * The independent WebDriver reads (screenshot, DOM, URL, title, console log)
+ * are issued concurrently, so teardown waits roughly for the slowest one
+ * rather than their sum. Healing events recorded during the test are added
+ * from memory. The screenshot goes through {@link ScreenshotWriter}, so it is
+ * deduplicated, retained and back-pressured with every other screenshot; the
+ * archive records its path. The archive is written by a single background
+ * writer behind a bounded queue once the browser data has been collected, so
+ * the session can be released right away; when the queue is full the failing
+ * test writes its own archive. Each entry and the archive as a whole are capped
+ * in size, and the oldest archives of the run are deleted beyond the file count
+ * and directory size limits. WebDriver commands cannot be interrupted, so a
+ * session with a read still running after the timeout is discarded instead of
+ * being returned to the pool.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class FailureBundle {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(FailureBundle.class);
+    
+    /** JSON codec shipped with Selenium */
+    private static final Json JSON = new Json();
+    
+    /** Runs browser reads off the test thread */
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "failure-bundle");
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    /** Single archive writer; a full queue makes the failing test write its own archive */
+    private static final ThreadPoolExecutor WRITER = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(Math.max(1, ConfigReader.getInstance().getIntProperty("failure.bundle.queue.capacity", 8))),
+        runnable -> {
+            Thread thread = new Thread(runnable, "failure-bundle-writer");
+            thread.setDaemon(true);
+            return thread;
+        },
+        new ThreadPoolExecutor.CallerRunsPolicy());
+    
+    /** Archives still being written; bounded by the writer queue */
+    private static final List<Future<?>> PENDING = new ArrayList<>();
+    
+    /** Archives written by this run, oldest first, for retention */
+    private static final Deque<Path> RETAINED = new ArrayDeque<>();
+    
+    /** Bytes held by retained archives */
+    private static long retainedBytes;
+    
+    /** Bundles written by this run */
+    private static final AtomicInteger WRITTEN = new AtomicInteger();
+    
+    /** Private constructor to prevent instantiation */
+    private FailureBundle() {
+        throw new IllegalStateException("Utility class");
+    }
+    
+    /**
+     * Collects diagnostics from the calling thread's session and queues the archive.
+     * 
+     * @param testName name of the failed test
+     * @param testStartMillis epoch millis when the test started, for healing events
+     * @return path the archive is written to, or null if bundles are disabled or no driver is bound
+     */
+    public static Path capture(String testName, long testStartMillis) {
+        ConfigReader config = ConfigReader.getInstance();
+        if (!config.getBooleanProperty("failure.bundle.enabled", true)) {
+            return null;
+        }
+        WebDriver driver = DriverManager.getCurrentDriver();
+        if (driver == null) {
+            LOG.warn("No driver bound to {}, failure bundle skipped", Thread.currentThread().getName());
+            return null;
+        }
+        int timeoutSeconds = config.getIntProperty("failure.bundle.timeout", 10);
+        int maxEntryBytes = config.getIntProperty("failure.bundle.max.entry.kb", 2048) * 1024;
+        long maxTotalBytes = config.getIntProperty("failure.bundle.max.total.mb", 10) * 1024L * 1024L;
+        long failedAt = System.currentTimeMillis();
+        
+        // Screenshots need the real driver; the self-healing proxy does not add anything here
+        WebDriver screenshotDriver = DriverManager.getDelegate(driver);
+        
+        // Issue independent reads concurrently; the driver queues them per session
+        long started = System.nanoTime();
+        CompletableFuture<byte[]> screenshot = read(
+            () -> ((TakesScreenshot) screenshotDriver).getScreenshotAs(OutputType.BYTES));
+        CompletableFuture<String> dom = read(driver::getPageSource);
+        CompletableFuture<String> url = read(driver::getCurrentUrl);
+        CompletableFuture<String> title = read(driver::getTitle);
+        CompletableFuture<String> console = read(() -> formatConsole(driver));
+        
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("test", testName);
+        metadata.put("thread", Thread.currentThread().getName());
+        metadata.put("startedAt", testStartMillis);
+        metadata.put("failedAt", failedAt);
+        metadata.put("url", await(url, timeoutSeconds, metadata, "url"));
+        metadata.put("title", await(title, timeoutSeconds, metadata, "title"));
+        
+        Map<String, byte[]> entries = new LinkedHashMap<>();
+        byte[] png = await(screenshot, timeoutSeconds, metadata, "screenshot");
+        String source = await(dom, timeoutSeconds, metadata, "dom");
+        String log = await(console, timeoutSeconds, metadata, "console");
+        metadata.put("captureMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        String sessionId = DriverManager.getSessionId(driver);
+        
+        // A timed-out command keeps running on the session; it must not overlap the next test's commands
+        if (Stream.of(screenshot, dom, url, title, console).anyMatch(read -> !read.isDone())) {
+            LOG.warn("Failure bundle reads still running after {}s, discarding session {}", timeoutSeconds, sessionId);
+            metadata.put("sessionDiscarded", true);
+            DriverManager.quitDriver();
+        }
+        
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date(failedAt));
+        String baseName = testName + "_" + timestamp + "_" + Thread.currentThread().threadId();
+        if (png != null) {
+            metadata.put("screenshot", ScreenshotWriter.getInstance().submit(baseName, png).toString());
+        }
+        if (source != null) {
+            entries.put("dom.html", source.getBytes(StandardCharsets.UTF_8));
+        }
+        if (log != null) {
+            entries.put("console.log", log.getBytes(StandardCharsets.UTF_8));
+        }
+        entries.put("healing-events.json", healingEvents(sessionId, testStartMillis, failedAt));
+        
+        Path archive = Paths.get(config.getProperty("failure.bundle.dir", "target/failure-bundles"))
+            .resolve(baseName + ".zip");
+        int maxFiles = config.getIntProperty("failure.bundle.max.files", 100);
+        long maxDirBytes = config.getIntProperty("failure.bundle.max.dir.mb", 500) * 1024L * 1024L;
+        
+        // Browser data is in memory now; compress and write without holding the session
+        Future<?> pending = WRITER.submit(() -> {
+            write(archive, metadata, entries, maxEntryBytes, maxTotalBytes);
+            retain(archive, maxFiles, maxDirBytes);
+        });
+        synchronized (PENDING) {
+            PENDING.removeIf(Future::isDone);
+            PENDING.add(pending);
+        }
+        return archive;
+    }
+    
+    /**
+     * Waits for archives still being written.
+     * 
+     * @param timeoutSeconds maximum time to wait for each archive
+     */
+    public static void awaitPending(int timeoutSeconds) {
+        List<Future<?>> pending;
+        synchronized (PENDING) {
+            pending = new ArrayList<>(PENDING);
+            PENDING.clear();
+        }
+        for (Future<?> future : pending) {
+            try {
+                future.get(timeoutSeconds, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                LOG.warn("Failure bundle not completed: {}", e.getMessage());
+            }
+        }
+        if (WRITTEN.get() > 0) {
+            LOG.info("Failure bundles written: {}", WRITTEN.get());
+        }
+    }
+    
+    /**
+     * Starts a browser read on the bundle executor.
+     */
+    private static <T> CompletableFuture<T> read(Callable<T> call) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return call.call();
+            } catch (Exception e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }, EXECUTOR);
+    }
+    
+    /**
+     * Waits for a read, recording its error in the metadata instead of failing teardown.
+     */
+    private static <T> T await(CompletableFuture<T> future, int timeoutSeconds,
+                               Map<String, Object> metadata, String name) {
+        try {
+            return future.get(timeoutSeconds, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            metadata.put(name + "Error", String.valueOf(cause.getMessage()));
+            return null;
+        }
+    }
+    
+    /**
+     * Reads the browser console log; not every driver supports it.
+     */
+    private static String formatConsole(WebDriver driver) {
+        StringBuilder out = new StringBuilder();
+        for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+            out.append(entry.getTimestamp()).append(' ').append(entry.getLevel())
+                .append(' ').append(entry.getMessage()).append('\n');
+        }
+        return out.toString();
+    }
+    
+    /**
+     * Serializes the healing events of the test's session reported while the test ran.
+     */
+    private static byte[] healingEvents(String sessionId, long fromMillis, long toMillis) {
+        List<Map<String, Object>> events = new ArrayList<>();
+        for (HealingEvents.Event event : HealingEvents.between(sessionId, fromMillis, toMillis)) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("timestamp", event.getTimestamp());
+            item.put("locator", event.getLocator());
+            item.put("payload", event.getPayload());
+            events.add(item);
+        }
+        return JSON.toJson(events).getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Writes the archive, truncating oversized entries and dropping entries past the total cap.
+     */
+    private static void write(Path archive, Map<String, Object> metadata, Map<String, byte[]> entries,
+                              int maxEntryBytes, long maxTotalBytes) {
+        Map<String, Object> manifest = new LinkedHashMap<>(metadata);
+        List<String> truncated = new ArrayList<>();
+        List<String> dropped = new ArrayList<>();
+        Map<String, byte[]> accepted = new LinkedHashMap<>();
+        long total = 0;
+        for (Map.Entry<String, byte[]> entry : entries.entrySet()) {
+            byte[] data = entry.getValue();
+            if (data.length > maxEntryBytes) {
+                if (entry.getKey().endsWith(".png")) {
+                    // A cut image is useless; drop it instead
+                    dropped.add(entry.getKey());
+                    continue;
+                }
+                data = Arrays.copyOf(data, maxEntryBytes);
+                truncated.add(entry.getKey());
+            }
+            if (total + data.length > maxTotalBytes) {
+                dropped.add(entry.getKey());
+                continue;
+            }
+            total += data.length;
+            accepted.put(entry.getKey(), data);
+        }
+        manifest.put("truncated", truncated);
+        manifest.put("dropped", dropped);
+        
+        try {
+            Files.createDirectories(archive.getParent());
+            try (OutputStream file = Files.newOutputStream(archive);
+                 ZipOutputStream zip = new ZipOutputStream(file)) {
+                zip.setLevel(Deflater.BEST_SPEED);
+                putEntry(zip, "metadata.json", JSON.toJson(manifest).getBytes(StandardCharsets.UTF_8));
+                for (Map.Entry<String, byte[]> entry : accepted.entrySet()) {
+                    putEntry(zip, entry.getKey(), entry.getValue());
+                }
+            }
+            WRITTEN.incrementAndGet();
+            LOG.info("Failure bundle saved: {}", archive);
+        } catch (IOException e) {
+            LOG.warn("Failed to save failure bundle: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Records a written archive and deletes the oldest ones beyond the retention limits.
+     * 
+     * @param archive archive just written
+     * @param maxFiles maximum number of archives kept, 0 for unlimited
+     * @param maxDirBytes maximum total size of archives kept, 0 for unlimited
+     */
+    private static void retain(Path archive, int maxFiles, long maxDirBytes) {
+        synchronized (RETAINED) {
+            try {
+                if (!Files.exists(archive)) {
+                    return;
+                }
+                RETAINED.addLast(archive);
+                retainedBytes += Files.size(archive);
+                while ((maxFiles > 0 && RETAINED.size() > maxFiles)
+                        || (maxDirBytes > 0 && retainedBytes > maxDirBytes && RETAINED.size() > 1)) {
+                    Path oldest = RETAINED.pollFirst();
+                    retainedBytes -= Files.exists(oldest) ? Files.size(oldest) : 0;
+                    Files.deleteIfExists(oldest);
+                    LOG.info("Failure bundle deleted by retention: {}", oldest.getFileName());
+                }
+            } catch (IOException e) {
+                LOG.warn("Failure bundle retention failed: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Adds one entry to the archive.
+     */
+    private static void putEntry(ZipOutputStream zip, String name, byte[] data) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(data);
+        zip.closeEntry();
+    }
+}
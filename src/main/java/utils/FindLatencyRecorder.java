@@ -0,0 +1,172 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records findElement/findElements latency on the Healenium-wrapped driver.
+ * Registered as a {@link WebDriverListener} around the driver created by
+ * {@link DriverManager}, so measured time includes any healing. Latencies are
+ * kept in {@link LatencyHistogram}s per page object, locator and outcome:
+ * "found" (located directly), "healed" (a healing result was reported for the
+ * locator during the call) and "failed". The histograms are dumped to a JSON
+ * file per suite run to show which {@code @FindBy} locators rely on healing.
+ * "healed" is only known when healing results pass through the in-JVM
+ * {@link EmbeddedHealingBackend} or {@link HealingCacheProxy} (see
+ * {@link HealingEvents}); against an external backend without the proxy,
+ * healed finds are counted as "found".
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class FindLatencyRecorder implements WebDriverListener {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(FindLatencyRecorder.class);
+    
+    /** Shared instance used by every driver */
+    private static final FindLatencyRecorder INSTANCE = new FindLatencyRecorder();
+    
+    /** Page-object package used to attribute finds to a page class */
+    private static final String PAGES_PACKAGE = "pages.";
+    
+    /** Start of the find in progress on each thread: {nanoTime, epochMillis} */
+    private final ThreadLocal<long[]> started = new ThreadLocal<>();
+    
+    /** Histograms keyed by page object, locator and outcome */
+    private final Map<List<String>, LatencyHistogram> histograms = new ConcurrentHashMap<>();
+    
+    /**
+     * Gets the shared recorder.
+     * 
+     * @return recorder instance
+     */
+    public static FindLatencyRecorder getInstance() {
+        return INSTANCE;
+    }
+    
+    @Override
+    public void beforeFindElement(WebDriver driver, By locator) {
+        start();
+    }
+    
+    @Override
+    public void afterFindElement(WebDriver driver, By locator, WebElement result) {
+        finish(locator, true);
+    }
+    
+    @Override
+    public void beforeFindElements(WebDriver driver, By locator) {
+        start();
+    }
+    
+    @Override
+    public void afterFindElements(WebDriver driver, By locator, List<WebElement> result) {
+        finish(locator, true);
+    }
+    
+    @Override
+    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+        String name = method.getName();
+        if (target instanceof WebDriver && ("findElement".equals(name) || "findElements".equals(name))
+                && args != null && args.length == 1 && args[0] instanceof By) {
+            finish((By) args[0], false);
+        }
+    }
+    
+    /**
+     * Writes all histograms to a JSON file, latencies in microseconds.
+     * 
+     * @param file output file
+     */
+    public void dump(Path file) {
+        if (histograms.isEmpty()) {
+            return;
+        }
+        List<Map<String, Object>> rows = new ArrayList<>();
+        histograms.forEach((key, histogram) -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("page", key.get(0));
+            row.put("locator", key.get(1));
+            row.put("outcome", key.get(2));
+            row.put("count", histogram.getCount());
+            row.put("minMicros", histogram.getMin() / 1000);
+            row.put("meanMicros", Math.round(histogram.getMean() / 1000));
+            row.put("p50Micros", histogram.getValueAtPercentile(50) / 1000);
+            row.put("p90Micros", histogram.getValueAtPercentile(90) / 1000);
+            row.put("p99Micros", histogram.getValueAtPercentile(99) / 1000);
+            row.put("maxMicros", histogram.getMax() / 1000);
+            rows.add(row);
+        });
+        rows.sort((a, b) -> Long.compare((Long) b.get("p90Micros"), (Long) a.get("p90Micros")));
+        try {
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            Files.writeString(file, new Json().toJson(rows));
+            LOG.info("Find latency histograms written to {}", file);
+        } catch (IOException e) {
+            LOG.warn("Failed to write find latency histograms: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Clears all recorded histograms.
+     */
+    public void reset() {
+        histograms.clear();
+    }
+    
+    /**
+     * Marks the start of a find on the calling thread.
+     */
+    private void start() {
+        started.set(new long[] {System.nanoTime(), System.currentTimeMillis()});
+    }
+    
+    /**
+     * Records the find that just completed on the calling thread.
+     * 
+     * @param locator locator used
+     * @param success true if the find returned
+     */
+    private void finish(By locator, boolean success) {
+        long[] start = started.get();
+        if (start == null) {
+            return;
+        }
+        started.remove();
+        long elapsed = System.nanoTime() - start[0];
+        String outcome = !success ? "failed" : HealingEvents.consume(locator, start[1]) ? "healed" : "found";
+        histograms.computeIfAbsent(List.of(callingPage(), locator.toString(), outcome), k -> new LatencyHistogram())
+            .record(elapsed);
+    }
+    
+    /**
+     * Finds the page-object class that issued the find.
+     * 
+     * @return simple class name of the nearest page object on the stack, or "-"
+     */
+    private static String callingPage() {
+        Optional<String> page = StackWalker.getInstance().walk(frames -> frames
+            .map(StackWalker.StackFrame::getClassName)
+            .filter(name -> name.startsWith(PAGES_PACKAGE))
+            .findFirst());
+        return page.map(name -> name.substring(PAGES_PACKAGE.length())).orElse("-");
+    }
+}
@@ -0,0 +1,421 @@
+package utils;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spreads remote sessions across several Selenium Grid endpoints.
+ * Before each session the router asks every endpoint's {@code /status} how
+ * many slots for the requested browser are busy. It then tries the least
+ * loaded endpoint first, counting sessions it is still creating there.
+ * Endpoints that are down, not ready or refuse the session are skipped for
+ * that attempt. Rounds repeat with a backoff until {@code grid.session.retries}
+ * is used up. Per-endpoint session counts and creation latency are kept
+ * for the end-of-suite report.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class GridRouter {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(GridRouter.class);
+    
+    /** JSON codec for status responses */
+    private static final Json JSON = new Json();
+    
+    /** Shared router, configured from config.properties */
+    private static volatile GridRouter instance;
+    
+    /**
+     * One grid endpoint (hub or standalone server) and its statistics.
+     */
+    public static final class Node {
+        private final URL url;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong sessions = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong totalCreateNanos = new AtomicLong();
+        private final AtomicLong maxCreateNanos = new AtomicLong();
+        private volatile int lastBusy;
+        private volatile int lastCapacity;
+        
+        Node(URL url) {
+            this.url = url;
+        }
+        
+        /** Endpoint URL */
+        public URL getUrl() {
+            return url;
+        }
+        
+        /** Sessions created on this endpoint */
+        public long getSessions() {
+            return sessions.get();
+        }
+        
+        /** Failed session requests */
+        public long getFailures() {
+            return failures.get();
+        }
+        
+        /** Average session creation time in milliseconds */
+        public double getAverageCreateMillis() {
+            long total = sessions.get();
+            return total == 0 ? 0 : totalCreateNanos.get() / 1_000_000.0 / total;
+        }
+        
+        /** Longest session creation time in milliseconds */
+        public double getMaxCreateMillis() {
+            return maxCreateNanos.get() / 1_000_000.0;
+        }
+        
+        /** Busy slots for the browser at the last status query */
+        public int getLastBusy() {
+            return lastBusy;
+        }
+        
+        /** Slots for the browser at the last status query */
+        public int getLastCapacity() {
+            return lastCapacity;
+        }
+        
+        private void recordSession(long nanos) {
+            sessions.incrementAndGet();
+            totalCreateNanos.addAndGet(nanos);
+            maxCreateNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+    
+    /**
+     * Load of one endpoint as reported by its status, for ordering.
+     */
+    private static final class Load {
+        private final Node node;
+        private final int busy;
+        private final int capacity;
+        
+        Load(Node node, int busy, int capacity) {
+            this.node = node;
+            this.busy = busy;
+            this.capacity = capacity;
+        }
+        
+        boolean hasFreeSlot() {
+            return busy + node.inFlight.get() < capacity;
+        }
+        
+        double ratio() {
+            return (busy + node.inFlight.get()) / (double) Math.max(capacity, 1);
+        }
+    }
+    
+    /** Configured endpoints */
+    private final List<Node> nodes;
+    
+    /** Client for status queries */
+    private final HttpClient client;
+    
+    /** Timeout of one status query */
+    private final Duration statusTimeout;
+    
+    /** Number of rounds over the endpoints before giving up */
+    private final int retries;
+    
+    /** Pause between rounds */
+    private final Duration backoff;
+    
+    /**
+     * Creates a router over the given endpoints.
+     * 
+     * @param urls grid endpoint URLs, e.g. http://localhost:4444
+     * @param statusTimeout timeout of one status query
+     * @param retries rounds over the endpoints before giving up, at least 1
+     * @param backoff pause between rounds
+     */
+    public GridRouter(List<String> urls, Duration statusTimeout, int retries, Duration backoff) {
+        if (urls.isEmpty()) {
+            throw new IllegalArgumentException("No grid endpoints configured (grid.urls)");
+        }
+        List<Node> parsed = new ArrayList<>();
+        for (String url : urls) {
+            try {
+                parsed.add(new Node(URI.create(url.trim()).toURL()));
+            } catch (MalformedURLException | IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid grid endpoint: " + url, e);
+            }
+        }
+        this.nodes = List.copyOf(parsed);
+        this.statusTimeout = statusTimeout;
+        this.retries = Math.max(retries, 1);
+        this.backoff = backoff;
+        this.client = HttpClient.newBuilder().connectTimeout(statusTimeout).build();
+    }
+    
+    /**
+     * Gets the shared router, creating it from the configuration on first use.
+     * 
+     * @return shared router
+     */
+    public static GridRouter getInstance() {
+        GridRouter router = instance;
+        if (router == null) {
+            synchronized (GridRouter.class) {
+                router = instance;
+                if (router == null) {
+                    ConfigReader config = ConfigReader.getInstance();
+                    List<String> urls = new ArrayList<>();
+                    for (String url : config.getProperty("grid.urls", "http://localhost:4444").split(",")) {
+                        if (!url.isBlank()) {
+                            urls.add(url.trim());
+                        }
+                    }
+                    router = new GridRouter(urls,
+                        config.getSecondsProperty("grid.status.timeout", 5),
+                        config.getIntProperty("grid.session.retries", 3),
+                        Duration.ofMillis(config.getIntProperty("grid.retry.backoff.ms", 1000)));
+                    instance = router;
+                }
+            }
+        }
+        return router;
+    }
+    
+    /**
+     * Creates a session on the least loaded endpoint that accepts it.
+     * 
+     * @param capabilities browser options for the new session
+     * @return new remote session
+     * @throws SessionNotCreatedException if no endpoint created a session within the retries
+     */
+    public RemoteWebDriver createSession(Capabilities capabilities) {
+        String browser = capabilities.getBrowserName();
+        WebDriverException last = null;
+        for (int round = 1; round <= retries; round++) {
+            List<Load> candidates = rank(browser);
+            if (candidates.isEmpty()) {
+                LOG.warn("No ready grid endpoint for {} (round {}/{})", browser, round, retries);
+            }
+            for (Load load : candidates) {
+                Node node = load.node;
+                node.inFlight.incrementAndGet();
+                long start = System.nanoTime();
+                try {
+                    RemoteWebDriver driver = new RemoteWebDriver(node.url, capabilities);
+                    long elapsed = System.nanoTime() - start;
+                    node.recordSession(elapsed);
+                    LOG.info("Session {} on {} ({} of {} slots busy) in {} ms",
+                        driver.getSessionId(), node.url, load.busy, load.capacity, elapsed / 1_000_000);
+                    return driver;
+                } catch (WebDriverException e) {
+                    node.failures.incrementAndGet();
+                    last = e;
+                    LOG.warn("Session creation failed on {}: {}", node.url, firstLine(e.getMessage()));
+                } finally {
+                    node.inFlight.decrementAndGet();
+                }
+            }
+            if (round < retries) {
+                pause();
+            }
+        }
+        throw new SessionNotCreatedException(
+            "No grid endpoint created a " + browser + " session after " + retries + " rounds", last);
+    }
+    
+    /**
+     * Orders the ready endpoints the way the next session request for a browser would try them.
+     * 
+     * @param browser requested browser name
+     * @return ready endpoints, least loaded first
+     */
+    public List<Node> rankNodes(String browser) {
+        List<Node> ranked = new ArrayList<>();
+        for (Load load : rank(browser)) {
+            ranked.add(load.node);
+        }
+        return ranked;
+    }
+    
+    /**
+     * Queries every endpoint and orders the ready ones by load.
+     * Endpoints with a free slot come first; full ones are still tried, since the grid queues the request.
+     * 
+     * @param browser requested browser name
+     * @return ready endpoints, least loaded first
+     */
+    private List<Load> rank(String browser) {
+        List<CompletableFuture<Load>> queries = new ArrayList<>();
+        for (Node node : nodes) {
+            queries.add(queryStatus(node, browser));
+        }
+        List<Load> ready = new ArrayList<>();
+        for (CompletableFuture<Load> query : queries) {
+            try {
+                Load load = query.get(statusTimeout.toMillis() + 500, TimeUnit.MILLISECONDS);
+                if (load != null) {
+                    ready.add(load);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while querying grid status", e);
+            } catch (Exception e) {
+                // Endpoint unreachable or too slow; leave it out of this round
+            }
+        }
+        ready.sort(Comparator.comparing((Load load) -> !load.hasFreeSlot()).thenComparingDouble(Load::ratio));
+        return ready;
+    }
+    
+    /**
+     * Reads an endpoint's status and counts busy slots for the browser.
+     * 
+     * @param node endpoint to query
+     * @param browser requested browser name; slots of other browsers are not counted
+     * @return load of the endpoint, or null if it is not ready or has no slot for the browser
+     */
+    private CompletableFuture<Load> queryStatus(Node node, String browser) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(node.url.toString().replaceAll("/+$", "") + "/status"))
+            .timeout(statusTimeout)
+            .GET()
+            .build();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .thenApply(response -> {
+                if (response.statusCode() != 200) {
+                    return null;
+                }
+                Map<String, Object> value = asMap(JSON.toType(response.body(), Json.MAP_TYPE).get("value"));
+                if (value == null || !Boolean.TRUE.equals(value.get("ready"))) {
+                    return null;
+                }
+                int busy = 0;
+                int capacity = 0;
+                for (Object entry : asList(value.get("nodes"))) {
+                    Map<String, Object> gridNode = asMap(entry);
+                    if (gridNode == null || !"UP".equals(gridNode.get("availability"))) {
+                        continue;
+                    }
+                    for (Object slotEntry : asList(gridNode.get("slots"))) {
+                        Map<String, Object> slot = asMap(slotEntry);
+                        Map<String, Object> stereotype = slot == null ? null : asMap(slot.get("stereotype"));
+                        if (stereotype == null || !browser.equalsIgnoreCase(String.valueOf(stereotype.get("browserName")))) {
+                            continue;
+                        }
+                        capacity++;
+                        if (slot.get("session") != null) {
+                            busy++;
+                        }
+                    }
+                }
+                node.lastBusy = busy;
+                node.lastCapacity = capacity;
+                return capacity == 0 ? null : new Load(node, busy, capacity);
+            });
+    }
+    
+    /**
+     * Sleeps between rounds.
+     */
+    private void pause() {
+        try {
+            Thread.sleep(backoff.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry session creation", e);
+        }
+    }
+    
+    /**
+     * Casts a parsed JSON value to an object.
+     * 
+     * @param value parsed JSON value
+     * @return the object, or null if the value is not one
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return value instanceof Map ? (Map<String, Object>) value : null;
+    }
+    
+    /**
+     * Casts a parsed JSON value to an array.
+     * 
+     * @param value parsed JSON value
+     * @return the array, or an empty list if the value is not one
+     */
+    private static List<?> asList(Object value) {
+        return value instanceof List ? (List<?>) value : List.of();
+    }
+    
+    /**
+     * Shortens a WebDriver error message to its first line.
+     * 
+     * @param message exception message
+     * @return first line, or empty for no message
+     */
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "";
+        }
+        int end = message.indexOf('\n');
+        return end < 0 ? message : message.substring(0, end);
+    }
+    
+    /**
+     * Gets the configured endpoints with their statistics.
+     * 
+     * @return endpoints in configuration order
+     */
+    public List<Node> getNodes() {
+        return nodes;
+    }
+    
+    /**
+     * Formats per-endpoint statistics for logs.
+     * 
+     * @return one line per endpoint
+     */
+    public String getStats() {
+        StringBuilder stats = new StringBuilder();
+        for (Node node : nodes) {
+            if (stats.length() > 0) {
+                stats.append(System.lineSeparator());
+            }
+            stats.append(String.format(
+                "%s sessions=%d failures=%d avgCreate=%.0fms maxCreate=%.0fms lastBusy=%d/%d",
+                node.url, node.getSessions(), node.getFailures(), node.getAverageCreateMillis(),
+                node.getMaxCreateMillis(), node.lastBusy, node.lastCapacity));
+        }
+        return stats.toString();
+    }
+    
+    /**
+     * Logs the shared router's statistics if grid mode was used.
+     */
+    public static void logStats() {
+        GridRouter router = instance;
+        if (router != null) {
+            for (String line : router.getStats().split(System.lineSeparator())) {
+                LOG.info("Grid endpoint {}", line);
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package utils;
 
+import com.typesafe.config.ConfigFactory;
+
+import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.Properties;
 
 /**
@@ -10,64 +13,205 @@ import java.util.Properties;
  * Provides programmatic control over Healenium self-healing features.
  * Allows dynamic toggling of healing capabilities during test execution.
  * 
+ * The healing switch lives in memory: healenium.properties is read once for the
+ * initial value, {@link #enableHealing()} and {@link #disableHealing()} change the
+ * JVM-wide default, and {@link #healingScope(boolean)} or the {@link WithHealing}
+ * annotation override it for the current thread only. The switch is applied to the
+ * session by {@link HealingToggleDecorator}; toggling never writes files and never
+ * affects tests running on other threads.
+ * 
  * @author Carolina Steadham
  * @version 1.0
  */
 public class HealeniumConfig {
     
-    /** Path to Healenium configuration file */
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(HealeniumConfig.class);
+    
+    /** Healenium configuration resource name on the classpath */
+    private static final String PROPERTIES_RESOURCE = "healenium.properties";
+    
+    /** Source-tree location used when the resource is not on the classpath */
     private static final String PROPERTIES_FILE = "src/test/resources/healenium.properties";
     
+    /** Settings from healenium.properties, read once */
+    private static final Properties FILE_SETTINGS = load();
+    
+    /** JVM-wide healing default */
+    private static volatile boolean healingEnabled =
+        Boolean.parseBoolean(FILE_SETTINGS.getProperty("heal-enabled", "true").trim());
+    
+    /** Per-thread override, null when the thread follows the JVM default */
+    private static final ThreadLocal<Boolean> THREAD_OVERRIDE = new ThreadLocal<>();
+    
+    /**
+     * Try-with-resources scope that overrides healing for the current thread
+     * and restores the previous state on close.
+     */
+    public static final class HealingScope implements AutoCloseable {
+        
+        /** Override active before the scope was opened */
+        private final Boolean previous;
+        
+        private HealingScope(boolean enabled) {
+            this.previous = THREAD_OVERRIDE.get();
+            THREAD_OVERRIDE.set(enabled);
+        }
+        
+        @Override
+        public void close() {
+            if (previous == null) {
+                THREAD_OVERRIDE.remove();
+            } else {
+                THREAD_OVERRIDE.set(previous);
+            }
+        }
+    }
+    
+    /** Private constructor to prevent instantiation */
+    private HealeniumConfig() {
+        throw new IllegalStateException("Utility class");
+    }
+    
     /**
-     * Enables Healenium self-healing capability.
-     * Updates healenium.properties with heal-enabled=true.
+     * Enables Healenium self-healing capability for every thread without an override.
      */
     public static void enableHealing() {
         setHealingEnabled(true);
     }
     
     /**
-     * Disables Healenium self-healing capability.
-     * Updates healenium.properties with heal-enabled=false.
+     * Disables Healenium self-healing capability for every thread without an override.
      */
     public static void disableHealing() {
         setHealingEnabled(false);
     }
     
     /**
-     * Checks if self-healing is currently enabled.
+     * Checks if self-healing is currently enabled for the calling thread.
      * 
      * @return true if healing is enabled, false otherwise
      */
     public static boolean isHealingEnabled() {
-        Properties props = new Properties();
-        try (FileInputStream fis = new FileInputStream(PROPERTIES_FILE)) {
-            props.load(fis);
-            return Boolean.parseBoolean(props.getProperty("heal-enabled", "true"));
-        } catch (IOException e) {
-            System.err.println("Error reading healenium.properties: " + e.getMessage());
-            return true; // Default to enabled
+        Boolean override = THREAD_OVERRIDE.get();
+        return override != null ? override : healingEnabled;
+    }
+    
+    /**
+     * Overrides healing for the calling thread until the returned scope is closed.
+     * 
+     * <pre>
+     * try (HealeniumConfig.HealingScope ignored = HealeniumConfig.healingScope(false)) {
+     *     loginPage.login(user, password);
+     * }
+     * </pre>
+     * 
+     * @param enabled true to enable healing, false to disable it
+     * @return scope restoring the previous state on close
+     */
+    public static HealingScope healingScope(boolean enabled) {
+        return new HealingScope(enabled);
+    }
+    
+    /**
+     * Sets a healing override for the calling thread, e.g. for the duration of a test.
+     * 
+     * @param enabled true to enable healing, false to disable it
+     */
+    public static void setThreadOverride(boolean enabled) {
+        THREAD_OVERRIDE.set(enabled);
+    }
+    
+    /**
+     * Removes the calling thread's override so it follows the JVM default again.
+     */
+    public static void clearThreadOverride() {
+        THREAD_OVERRIDE.remove();
+    }
+    
+    /**
+     * Lets Healenium heal in every session so the in-memory switch alone decides.
+     * Must run before the first driver is created.
+     */
+    public static void allowRuntimeToggle() {
+        System.setProperty("heal-enabled", "true");
+        ConfigFactory.invalidateCaches();
+    }
+    
+    /**
+     * Gets the Healenium backend URL configured for the healing client.
+     * A JVM-level override takes precedence over healenium.properties.
+     * 
+     * @return value of hlm.server.url
+     */
+    public static String getServerUrl() {
+        String override = System.getProperty("hlm.server.url");
+        if (override != null) {
+            return override;
         }
+        return FILE_SETTINGS.getProperty("hlm.server.url", "http://localhost:7878").trim();
+    }
+    
+    /**
+     * Points the healing client at a different backend URL for this JVM.
+     * Overrides hlm.server.url from healenium.properties for drivers created afterwards.
+     * 
+     * @param url backend URL
+     */
+    public static void overrideServerUrl(String url) {
+        System.setProperty("hlm.server.url", url);
+        ConfigFactory.invalidateCaches();
     }
     
     /**
-     * Sets healing enabled or disabled state.
-     * Updates healenium.properties file with new value.
+     * Points the healing client at a different selector imitator URL for this JVM.
      * 
-     * @param enabled true to enable healing, false to disable
+     * @param url imitator URL
+     */
+    public static void overrideImitatorUrl(String url) {
+        System.setProperty("hlm.imitator.url", url);
+        ConfigFactory.invalidateCaches();
+    }
+    
+    /**
+     * Sets the JVM-wide healing default in memory.
+     * 
+     * @param enabled true to enable healing, false to disable it
      */
     private static void setHealingEnabled(boolean enabled) {
+        healingEnabled = enabled;
+        LOG.info("Self-healing {}", enabled ? "ENABLED" : "DISABLED");
+    }
+    
+    /**
+     * Reads healenium.properties from the classpath, or from the source tree.
+     * 
+     * @return settings, empty if the file cannot be read
+     */
+    private static Properties load() {
         Properties props = new Properties();
-        try (FileInputStream fis = new FileInputStream(PROPERTIES_FILE)) {
-            props.load(fis);
-            props.setProperty("heal-enabled", String.valueOf(enabled));
-            
-            try (FileOutputStream fos = new FileOutputStream(PROPERTIES_FILE)) {
-                props.store(fos, "Healenium Configuration");
-                System.out.println("Self-healing " + (enabled ? "ENABLED" : "DISABLED"));
+        try (InputStream in = openProperties()) {
+            if (in != null) {
+                props.load(in);
             }
         } catch (IOException e) {
-            System.err.println("Error updating healenium.properties: " + e.getMessage());
+            LOG.warn("Error reading healenium.properties: {}", e.getMessage());
+        }
+        return props;
+    }
+    
+    /**
+     * Opens healenium.properties from the classpath or the source tree.
+     * 
+     * @return input stream, or null if the file does not exist
+     * @throws IOException if the fallback file cannot be opened
+     */
+    private static InputStream openProperties() throws IOException {
+        InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(PROPERTIES_RESOURCE);
+        if (in != null) {
+            return in;
         }
+        File fallback = new File(PROPERTIES_FILE);
+        return fallback.isFile() ? new FileInputStream(fallback) : null;
     }
 }
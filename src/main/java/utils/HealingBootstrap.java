@@ -0,0 +1,110 @@
+package utils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Starts and stops the local healing infrastructure for a test run.
+ * When hlm.server.url points at localhost and nothing listens there, starts an
+ * {@link EmbeddedHealingBackend} in its place so healing runs need no Docker.
+ * When enabled in config.properties, puts a {@link HealingCacheProxy} in front of
+ * the backend and points the healing client at it.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class HealingBootstrap {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(HealingBootstrap.class);
+    
+    /** Running embedded backend, null when a real backend is used */
+    private static EmbeddedHealingBackend embeddedBackend;
+    
+    /** Running cache proxy, null when disabled */
+    private static HealingCacheProxy cacheProxy;
+    
+    /** Private constructor to prevent instantiation */
+    private HealingBootstrap() {
+        throw new IllegalStateException("Utility class");
+    }
+    
+    /**
+     * Starts the configured healing infrastructure. Safe to call more than once.
+     */
+    public static synchronized void start() {
+        ConfigReader config = ConfigReader.getInstance();
+        HealeniumConfig.allowRuntimeToggle();
+        if (embeddedBackend == null) {
+            startEmbeddedBackend(config);
+        }
+        if (cacheProxy != null || !config.getBooleanProperty("healing.cache.enabled", false)) {
+            return;
+        }
+        HealingCache cache = new HealingCache(
+            Paths.get(config.getProperty("healing.cache.file", "target/healing-cache.bin")),
+            Duration.ofMinutes(config.getIntProperty("healing.cache.ttl.minutes", 1440)),
+            config.getIntProperty("healing.cache.max.entries", 10_000));
+        try {
+            cacheProxy = new HealingCacheProxy(HealeniumConfig.getServerUrl(),
+                config.getIntProperty("healing.cache.port", 0), cache);
+            cacheProxy.start();
+            HealeniumConfig.overrideServerUrl(cacheProxy.getUrl());
+        } catch (IOException e) {
+            LOG.warn("Healing cache proxy not started: {}", e.getMessage());
+            cacheProxy = null;
+        }
+    }
+    
+    /**
+     * Stops the healing infrastructure, flushing pending writes and the cache file.
+     */
+    public static synchronized void stop() {
+        if (cacheProxy != null) {
+            cacheProxy.stop();
+            cacheProxy = null;
+        }
+        if (embeddedBackend != null) {
+            embeddedBackend.stop();
+            embeddedBackend = null;
+        }
+    }
+    
+    /**
+     * Starts the embedded backend according to healing.backend.embedded:
+     * "auto" replaces a localhost backend that is not running, "true" always
+     * uses the embedded backend, "false" never does.
+     * 
+     * @param config test configuration
+     */
+    private static void startEmbeddedBackend(ConfigReader config) {
+        String mode = config.getProperty("healing.backend.embedded", "auto");
+        URI serverUrl = URI.create(HealeniumConfig.getServerUrl());
+        boolean local = "localhost".equals(serverUrl.getHost()) || "127.0.0.1".equals(serverUrl.getHost());
+        if ("false".equals(mode) || ("auto".equals(mode) && !local)) {
+            return;
+        }
+        
+        String store = config.getProperty("healing.backend.store");
+        try {
+            embeddedBackend = new EmbeddedHealingBackend(local ? Math.max(serverUrl.getPort(), 0) : 0,
+                store == null ? null : Paths.get(store));
+        } catch (IOException e) {
+            if ("auto".equals(mode)) {
+                LOG.info("Using running healing backend at {}", serverUrl);
+                return;
+            }
+            try {
+                embeddedBackend = new EmbeddedHealingBackend(0, store == null ? null : Paths.get(store));
+            } catch (IOException retry) {
+                LOG.warn("Embedded healing backend not started: {}", retry.getMessage());
+                return;
+            }
+        }
+        embeddedBackend.start();
+        HealeniumConfig.overrideServerUrl(embeddedBackend.getUrl());
+        HealeniumConfig.overrideImitatorUrl(embeddedBackend.getUrl());
+    }
+}
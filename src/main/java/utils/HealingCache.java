@@ -0,0 +1,277 @@
+package utils;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local persistent store for healing backend responses.
+ * Holds locator baselines and healed selectors keyed by request (page + locator),
+ * evicts least recently used entries beyond a size limit, expires entries after
+ * a TTL and persists to a memory-mapped file so the cache survives between runs.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class HealingCache {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(HealingCache.class);
+    
+    /** Magic number marking a cache file */
+    private static final int FILE_MAGIC = 0x484C4D43;
+    
+    /**
+     * Cached backend response.
+     */
+    public static final class Entry {
+        
+        private final int status;
+        private final String contentType;
+        private final byte[] body;
+        private final long expiresAt;
+        
+        Entry(int status, String contentType, byte[] body, long expiresAt) {
+            this.status = status;
+            this.contentType = contentType;
+            this.body = body;
+            this.expiresAt = expiresAt;
+        }
+        
+        /** @return HTTP status of the cached response */
+        public int getStatus() {
+            return status;
+        }
+        
+        /** @return content type of the cached response */
+        public String getContentType() {
+            return contentType;
+        }
+        
+        /** @return body of the cached response */
+        public byte[] getBody() {
+            return body;
+        }
+        
+        /** @return true if the entry is past its TTL at the given time */
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+    
+    /** File the cache is persisted to */
+    private final Path file;
+    
+    /** Time an entry stays valid */
+    private final Duration ttl;
+    
+    /** LRU map of entries, access-ordered */
+    private final Map<String, Entry> entries;
+    
+    /** Cache statistics */
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    
+    /**
+     * Creates a cache and loads any entries persisted by a previous run.
+     * 
+     * @param file file the cache is persisted to
+     * @param ttl time an entry stays valid
+     * @param maxEntries maximum number of entries kept
+     */
+    public HealingCache(Path file, Duration ttl, int maxEntries) {
+        this.file = file;
+        this.ttl = ttl;
+        this.entries = Collections.synchronizedMap(new LinkedHashMap<String, Entry>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        });
+        load();
+    }
+    
+    /**
+     * Looks up a cached response.
+     * 
+     * @param key request key
+     * @return cached entry, or null on miss or expiry
+     */
+    public Entry get(String key) {
+        Entry entry = entries.get(key);
+        if (entry != null && entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(key);
+            expirations.incrementAndGet();
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+        } else {
+            hits.incrementAndGet();
+        }
+        return entry;
+    }
+    
+    /**
+     * Stores a response.
+     * 
+     * @param key request key
+     * @param status HTTP status
+     * @param contentType response content type
+     * @param body response body
+     */
+    public void put(String key, int status, String contentType, byte[] body) {
+        entries.put(key, new Entry(status, contentType == null ? "" : contentType, body,
+            System.currentTimeMillis() + ttl.toMillis()));
+    }
+    
+    /**
+     * Drops every entry whose key starts with a prefix, e.g. after a write to that endpoint.
+     * 
+     * @param prefix key prefix
+     */
+    public void invalidatePrefix(String prefix) {
+        synchronized (entries) {
+            entries.keySet().removeIf(key -> key.startsWith(prefix));
+        }
+    }
+    
+    /**
+     * Number of entries currently cached.
+     * 
+     * @return entry count
+     */
+    public int size() {
+        return entries.size();
+    }
+    
+    /**
+     * Number of lookups served from the cache.
+     * 
+     * @return hit count
+     */
+    public long getHits() {
+        return hits.get();
+    }
+    
+    /**
+     * Number of lookups that had to go to the backend.
+     * 
+     * @return miss count
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+    
+    /**
+     * Human-readable summary of cache statistics.
+     * 
+     * @return statistics line
+     */
+    public String getStats() {
+        return String.format("entries=%d hits=%d misses=%d evictions=%d expirations=%d",
+            size(), hits.get(), misses.get(), evictions.get(), expirations.get());
+    }
+    
+    /**
+     * Writes all live entries to the cache file through a memory-mapped buffer.
+     */
+    public void flush() {
+        List<Map.Entry<byte[], Entry>> snapshot = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        long size = 8;
+        synchronized (entries) {
+            for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                if (e.getValue().isExpired(now)) {
+                    continue;
+                }
+                byte[] key = e.getKey().getBytes(StandardCharsets.UTF_8);
+                byte[] type = e.getValue().contentType.getBytes(StandardCharsets.UTF_8);
+                size += 4 + key.length + 4 + type.length + 4 + e.getValue().body.length + 4 + 8;
+                snapshot.add(Map.entry(key, e.getValue()));
+            }
+        }
+        
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+                buffer.putInt(FILE_MAGIC);
+                buffer.putInt(snapshot.size());
+                for (Map.Entry<byte[], Entry> e : snapshot) {
+                    Entry entry = e.getValue();
+                    byte[] type = entry.contentType.getBytes(StandardCharsets.UTF_8);
+                    buffer.putInt(e.getKey().length).put(e.getKey());
+                    buffer.putInt(type.length).put(type);
+                    buffer.putInt(entry.body.length).put(entry.body);
+                    buffer.putInt(entry.status);
+                    buffer.putLong(entry.expiresAt);
+                }
+                buffer.force();
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to persist healing cache: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Loads unexpired entries from the cache file through a memory-mapped buffer.
+     */
+    private void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 8 || buffer.getInt() != FILE_MAGIC) {
+                LOG.warn("Ignoring unrecognised healing cache file: {}", file);
+                return;
+            }
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                String key = new String(readBytes(buffer), StandardCharsets.UTF_8);
+                String type = new String(readBytes(buffer), StandardCharsets.UTF_8);
+                byte[] body = readBytes(buffer);
+                int status = buffer.getInt();
+                long expiresAt = buffer.getLong();
+                if (expiresAt > now) {
+                    entries.put(key, new Entry(status, type, body, expiresAt));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Failed to load healing cache, starting empty: {}", e.getMessage());
+            entries.clear();
+        }
+    }
+    
+    /**
+     * Reads a length-prefixed byte array.
+     * 
+     * @param buffer source buffer
+     * @return bytes read
+     */
+    private static byte[] readBytes(MappedByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
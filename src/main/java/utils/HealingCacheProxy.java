@@ -0,0 +1,341 @@
+package utils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local HTTP tier in front of the Healenium backend (hlm-backend).
+ * The healing client is pointed at this proxy instead of the backend. Lookups
+ * (GET) are answered from a {@link HealingCache} when possible; writes of
+ * locator baselines and healing results are acknowledged immediately and
+ * forwarded to the backend in the background, so finds no longer wait on
+ * backend round trips. Everything else is forwarded synchronously.
+ * While a write to an endpoint is on its way to the backend, lookups on that
+ * endpoint are forwarded but not cached, and the endpoint's entries are dropped
+ * again once the backend has answered, so a lookup racing the write cannot
+ * keep the old baseline for the whole TTL.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class HealingCacheProxy {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(HealingCacheProxy.class);
+    
+    /** Endpoints whose writes are forwarded asynchronously */
+    private static final List<String> ASYNC_WRITE_PATHS = List.of("/healenium/selector", "/healenium/healing");
+    
+    /** Request headers the JDK client manages itself and must not be copied */
+    private static final Set<String> RESTRICTED_HEADERS =
+        Set.of("connection", "content-length", "expect", "host", "upgrade", "transfer-encoding");
+    
+    /** Upstream backend base URL */
+    private final URI upstream;
+    
+    /** Local store of backend responses */
+    private final HealingCache cache;
+    
+    /** Local HTTP server the healing client talks to */
+    private final HttpServer server;
+    
+    /** Client used to reach the backend */
+    private final HttpClient client;
+    
+    /** Threads serving proxy requests */
+    private final ExecutorService requestExecutor;
+    
+    /** Single background writer forwarding queued writes in order */
+    private final ThreadPoolExecutor writer;
+    
+    /** Write state per write endpoint; lookups are cached only if no write to the endpoint overlapped them */
+    private final Map<String, WriteState> writes = new ConcurrentHashMap<>();
+    
+    /**
+     * Writes in flight to one endpoint and a counter bumped whenever one starts or ends.
+     */
+    private static final class WriteState {
+        private final AtomicLong generation = new AtomicLong();
+        private final AtomicLong pending = new AtomicLong();
+    }
+    
+    /** Write-back statistics */
+    private final AtomicLong queuedWrites = new AtomicLong();
+    private final AtomicLong failedWrites = new AtomicLong();
+    
+    /**
+     * Creates a proxy; call {@link #start()} to begin serving.
+     * 
+     * @param upstream backend base URL, e.g. http://localhost:7878
+     * @param port local port to listen on, 0 for any free port
+     * @param cache store of backend responses
+     * @throws IOException if the port cannot be bound
+     */
+    public HealingCacheProxy(String upstream, int port, HealingCache cache) throws IOException {
+        this.upstream = URI.create(upstream.endsWith("/") ? upstream.substring(0, upstream.length() - 1) : upstream);
+        this.cache = cache;
+        this.client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(10_000),
+            daemon("healing-proxy-writer"));
+        this.requestExecutor = Executors.newCachedThreadPool(daemon("healing-proxy"));
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(requestExecutor);
+    }
+    
+    /**
+     * Starts serving requests.
+     */
+    public void start() {
+        server.start();
+        LOG.info("Healing cache proxy on {} -> {}", getUrl(), upstream);
+    }
+    
+    /**
+     * Stops serving, drains queued writes and persists the cache.
+     */
+    public void stop() {
+        server.stop(0);
+        requestExecutor.shutdown();
+        writer.shutdown();
+        try {
+            writer.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        cache.flush();
+        LOG.info("Healing cache {} queuedWrites={} failedWrites={}",
+            cache.getStats(), queuedWrites.get(), failedWrites.get());
+    }
+    
+    /**
+     * URL the healing client should use as hlm.server.url.
+     * 
+     * @return local proxy URL
+     */
+    public String getUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+    
+    /**
+     * Gets the response cache.
+     * 
+     * @return cache
+     */
+    public HealingCache getCache() {
+        return cache;
+    }
+    
+    /**
+     * Routes a request to the cache, the async writer or the backend.
+     * 
+     * @param exchange HTTP exchange
+     * @throws IOException if the response cannot be written
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod();
+            URI uri = exchange.getRequestURI();
+            String key = uri.getRawPath() + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery());
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            
+            if ("GET".equals(method)) {
+                HealingCache.Entry cached = cache.get(key);
+                if (cached == null) {
+                    WriteState state = writeState(writePathOf(uri.getRawPath()));
+                    long generation = state.generation.get();
+                    HttpResponse<byte[]> response = forward(exchange, method, key, body);
+                    // Only cache what no write could have overtaken
+                    if (response.statusCode() / 100 == 2 && state.pending.get() == 0
+                            && state.generation.get() == generation) {
+                        cache.put(key, response.statusCode(), contentType(response), response.body());
+                    }
+                    respond(exchange, response.statusCode(), contentType(response), response.body());
+                } else {
+                    respond(exchange, cached.getStatus(), cached.getContentType(), cached.getBody());
+                }
+            } else if (isAsyncWrite(method, uri.getRawPath())) {
+                if (uri.getRawPath().startsWith("/healenium/healing")) {
+                    HealingEvents.publish(new String(body, StandardCharsets.UTF_8));
+                }
+                queueWrite(exchange, method, uri.getRawPath(), key, body);
+                respond(exchange, 200, "application/json", new byte[0]);
+            } else {
+                HttpResponse<byte[]> response = forward(exchange, method, key, body);
+                respond(exchange, response.statusCode(), contentType(response), response.body());
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Healing proxy error: {}", e.getMessage());
+            respond(exchange, 502, "text/plain", String.valueOf(e.getMessage()).getBytes());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 503, "text/plain", new byte[0]);
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    /**
+     * Queues a write for background delivery; falls back to a synchronous write when the queue is full.
+     * The endpoint's cached lookups are dropped when the write starts and again once the backend has answered.
+     */
+    private void queueWrite(HttpExchange exchange, String method, String path, String key, byte[] body)
+            throws IOException, InterruptedException {
+        HttpRequest request = buildRequest(exchange, method, key, body);
+        WriteState state = writeState(path);
+        state.pending.incrementAndGet();
+        state.generation.incrementAndGet();
+        cache.invalidatePrefix(path);
+        try {
+            writer.execute(() -> {
+                try {
+                    send(request);
+                } catch (IOException e) {
+                    // Counted in send
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    writeDone(state, path);
+                }
+            });
+            queuedWrites.incrementAndGet();
+        } catch (RejectedExecutionException e) {
+            try {
+                send(request);
+            } finally {
+                writeDone(state, path);
+            }
+        }
+    }
+    
+    /**
+     * Delivers one write to the backend, counting failures.
+     */
+    private void send(HttpRequest request) throws IOException, InterruptedException {
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() / 100 != 2) {
+                failedWrites.incrementAndGet();
+            }
+        } catch (IOException e) {
+            failedWrites.incrementAndGet();
+            throw e;
+        }
+    }
+    
+    /**
+     * Marks a write finished and drops lookups cached while it was in flight.
+     */
+    private void writeDone(WriteState state, String path) {
+        cache.invalidatePrefix(path);
+        state.generation.incrementAndGet();
+        state.pending.decrementAndGet();
+    }
+    
+    /**
+     * Maps a lookup path to the write endpoint that changes it.
+     */
+    private static String writePathOf(String path) {
+        for (String writePath : ASYNC_WRITE_PATHS) {
+            if (path.startsWith(writePath)) {
+                return writePath;
+            }
+        }
+        return path;
+    }
+    
+    /**
+     * Gets the write state of an endpoint path.
+     */
+    private WriteState writeState(String path) {
+        return writes.computeIfAbsent(path, p -> new WriteState());
+    }
+    
+    /**
+     * Forwards a request to the backend synchronously.
+     */
+    private HttpResponse<byte[]> forward(HttpExchange exchange, String method, String key, byte[] body)
+            throws IOException, InterruptedException {
+        return client.send(buildRequest(exchange, method, key, body), HttpResponse.BodyHandlers.ofByteArray());
+    }
+    
+    /**
+     * Copies an incoming request into a backend request.
+     */
+    private HttpRequest buildRequest(HttpExchange exchange, String method, String key, byte[] body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(upstream + key))
+            .timeout(Duration.ofSeconds(30))
+            .method(method, body.length == 0
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(body));
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+        return builder.build();
+    }
+    
+    /**
+     * Creates daemon threads, so an undrained proxy never keeps the JVM alive.
+     */
+    private static ThreadFactory daemon(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    /**
+     * Checks whether a request is a write that may be forwarded in the background.
+     */
+    private static boolean isAsyncWrite(String method, String path) {
+        return ("POST".equals(method) || "PUT".equals(method)) && ASYNC_WRITE_PATHS.contains(path);
+    }
+    
+    /**
+     * Reads a backend response's content type.
+     */
+    private static String contentType(HttpResponse<byte[]> response) {
+        return response.headers().firstValue("Content-Type").orElse("application/json");
+    }
+    
+    /**
+     * Writes a response, ignoring clients that have already gone away.
+     */
+    private static void respond(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        if (exchange.getResponseCode() != -1) {
+            return;
+        }
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
@@ -0,0 +1,248 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * In-JVM record of healing results reported to the healing backend.
+ * The embedded backend and the cache proxy publish every healing result they
+ * receive, so the framework can tell which finds were healed and attach
+ * healing events to test diagnostics. Only healing that travels through one of
+ * those in-JVM components is visible here: against an external backend with no
+ * cache proxy in front of it nothing is published, and healed finds look like
+ * direct ones. Results arrive on the backend's threads, so each event is
+ * attributed to a browser session: from the payload's {@code sessionId} when
+ * the client sends one, otherwise by the test thread whose find claims it
+ * through {@link #consume(By, long)}.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class HealingEvents {
+    
+    /** Maximum number of events retained */
+    private static final int MAX_EVENTS = 1000;
+    
+    /** JSON codec shipped with Selenium */
+    private static final Json JSON = new Json();
+    
+    /** Recent events, oldest first */
+    private static final ConcurrentLinkedDeque<Event> EVENTS = new ConcurrentLinkedDeque<>();
+    
+    /**
+     * Single healing result.
+     */
+    public static final class Event {
+        
+        private final long timestamp;
+        private final String locator;
+        private final String type;
+        private final String payload;
+        private volatile String sessionId;
+        private volatile boolean consumed;
+        
+        Event(long timestamp, String locator, String type, String payload, String sessionId) {
+            this.timestamp = timestamp;
+            this.locator = locator;
+            this.type = type;
+            this.payload = payload;
+            this.sessionId = sessionId;
+        }
+        
+        /** @return epoch millis when the result was reported */
+        public long getTimestamp() {
+            return timestamp;
+        }
+        
+        /** @return original locator value that failed and was healed */
+        public String getLocator() {
+            return locator;
+        }
+        
+        /** @return raw healing result as sent by the client */
+        public String getPayload() {
+            return payload;
+        }
+        
+        /** @return browser session the healing happened in, or null if not attributed */
+        public String getSessionId() {
+            return sessionId;
+        }
+    }
+    
+    /** Private constructor to prevent instantiation */
+    private HealingEvents() {
+        throw new IllegalStateException("Utility class");
+    }
+    
+    /**
+     * Records a healing result from its JSON payload.
+     * 
+     * @param payload healing request body sent by the client
+     */
+    public static void publish(String payload) {
+        Map<?, ?> parsed = parse(payload);
+        EVENTS.addLast(new Event(System.currentTimeMillis(), extractLocator(parsed), extractType(parsed), payload,
+            parsed != null && parsed.get("sessionId") != null ? parsed.get("sessionId").toString() : null));
+        while (EVENTS.size() > MAX_EVENTS) {
+            EVENTS.pollFirst();
+        }
+    }
+    
+    /**
+     * Claims the most recent unclaimed healing event matching a locator.
+     * The event's locator value must equal the locator's value exactly, and its
+     * strategy must match when the payload names one, so {@code By.id: login}
+     * never claims an event for {@code By.id: loginButton}.
+     * An event without a session is attributed to the calling thread's session.
+     * 
+     * @param locator locator whose find just completed
+     * @param sinceMillis only consider events reported at or after this time
+     * @return true if a matching healing event was found
+     */
+    public static boolean consume(By locator, long sinceMillis) {
+        String text = locator.toString();
+        int separator = text.indexOf(": ");
+        String strategy = separator < 0 ? null : normalize(text.substring(0, separator).replaceFirst("^By\\.", ""));
+        String value = separator < 0 ? text : text.substring(separator + 2);
+        Iterator<Event> it = EVENTS.descendingIterator();
+        while (it.hasNext()) {
+            Event event = it.next();
+            if (event.timestamp < sinceMillis) {
+                return false;
+            }
+            if (!event.consumed && matches(event, text, strategy, value)) {
+                event.consumed = true;
+                if (event.sessionId == null) {
+                    event.sessionId = DriverManager.getSessionId(DriverManager.getCurrentDriver());
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Checks whether a healing event was reported for a locator.
+     * 
+     * @param event healing event
+     * @param text full locator text, e.g. {@code By.id: login}
+     * @param strategy normalized locator strategy, or null if the text has none
+     * @param value locator value
+     * @return true if the event names exactly this locator
+     */
+    private static boolean matches(Event event, String text, String strategy, String value) {
+        if (event.locator == null) {
+            return false;
+        }
+        if (event.locator.equals(text)) {
+            return true;
+        }
+        return event.locator.equals(value)
+            && (event.type == null || strategy == null || normalize(event.type).equals(strategy));
+    }
+    
+    /**
+     * Normalizes a locator strategy name, so "cssSelector" and "css selector" compare equal.
+     * 
+     * @param strategy strategy name
+     * @return lower-case letters of the name
+     */
+    private static String normalize(String strategy) {
+        return strategy.replaceAll("[^A-Za-z]", "").toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * Returns events reported within a time window.
+     * 
+     * @param fromMillis window start, epoch millis
+     * @param toMillis window end, epoch millis
+     * @return events in report order
+     */
+    public static List<Event> between(long fromMillis, long toMillis) {
+        List<Event> result = new ArrayList<>();
+        for (Event event : EVENTS) {
+            if (event.timestamp >= fromMillis && event.timestamp <= toMillis) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Returns events of one browser session reported within a time window.
+     * Events not attributed to any session are left out, so parallel tests never see each other's healing.
+     * 
+     * @param sessionId browser session id
+     * @param fromMillis window start, epoch millis
+     * @param toMillis window end, epoch millis
+     * @return events in report order
+     */
+    public static List<Event> between(String sessionId, long fromMillis, long toMillis) {
+        List<Event> result = new ArrayList<>();
+        for (Event event : between(fromMillis, toMillis)) {
+            if (sessionId != null && sessionId.equals(event.sessionId)) {
+                result.add(event);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Parses a healing payload.
+     * 
+     * @param payload healing request body
+     * @return JSON object, or null if the payload is not one
+     */
+    private static Map<?, ?> parse(String payload) {
+        try {
+            Object parsed = JSON.toType(payload, Object.class);
+            return parsed instanceof Map ? (Map<?, ?>) parsed : null;
+        } catch (RuntimeException e) {
+            // Not JSON - keep the raw payload only
+            return null;
+        }
+    }
+    
+    /**
+     * Pulls the failed locator value out of a parsed healing payload.
+     * 
+     * @param parsed healing request body
+     * @return locator value, or null if not present
+     */
+    private static String extractLocator(Map<?, ?> parsed) {
+        if (parsed == null) {
+            return null;
+        }
+        Object locator = parsed.get("locator");
+        if (locator instanceof Map) {
+            locator = ((Map<?, ?>) locator).get("value");
+        }
+        return locator == null ? null : locator.toString();
+    }
+    
+    /**
+     * Pulls the failed locator strategy out of a parsed healing payload.
+     * 
+     * @param parsed healing request body
+     * @return strategy name, or null if not present
+     */
+    private static String extractType(Map<?, ?> parsed) {
+        if (parsed == null) {
+            return null;
+        }
+        Object type = parsed.get("type");
+        Object locator = parsed.get("locator");
+        if (locator instanceof Map) {
+            type = ((Map<?, ?>) locator).get("type");
+        }
+        return type == null ? null : type.toString();
+    }
+}
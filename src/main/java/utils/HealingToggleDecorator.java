@@ -0,0 +1,44 @@
+package utils;
+
+import com.epam.healenium.annotation.DisableHealing;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+
+import java.lang.reflect.Method;
+
+/**
+ * Applies the in-memory healing switch to a SelfHealingDriver session.
+ * When {@link HealeniumConfig#isHealingEnabled()} is false for the calling thread,
+ * element lookups are issued from a method annotated with Healenium's
+ * {@link DisableHealing}, which Healenium honours per call. The session is shared
+ * and unchanged; only the calling thread's lookups skip healing.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class HealingToggleDecorator extends WebDriverDecorator<WebDriver> {
+    
+    @Override
+    public Object call(Decorated<?> target, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        if (("findElement".equals(name) || "findElements".equals(name)) && !HealeniumConfig.isHealingEnabled()) {
+            return callWithoutHealing(target, method, args);
+        }
+        return super.call(target, method, args);
+    }
+    
+    /**
+     * Performs the lookup with healing disabled for this call.
+     * 
+     * @param target decorated driver or element
+     * @param method lookup method
+     * @param args lookup arguments
+     * @return lookup result
+     * @throws Throwable if the lookup fails
+     */
+    @DisableHealing
+    public Object callWithoutHealing(Decorated<?> target, Method method, Object[] args) throws Throwable {
+        return super.call(target, method, args);
+    }
+}
@@ -0,0 +1,587 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.pagefactory.Annotations;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Times every locator declared by the page objects and flags the expensive ones.
+ * The {@code @FindBy} fields and {@code static} {@link LocatorTemplate} fields of
+ * each class in the {@code pages} package are collected. Each one is evaluated in
+ * the browser against the current page, repeated to get a stable per-lookup
+ * cost, and also timed as a full findElements round trip. Each selector is also
+ * checked for known slow shapes: text-contains tests, chains of descendant
+ * axes, and unanchored wildcards. An XPath that CSS can express gets a CSS
+ * suggestion. Results go to the log and to {@code locator.cost.file}.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public final class LocatorCostAnalyzer {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(LocatorCostAnalyzer.class);
+    
+    /** Package holding the page objects */
+    private static final String PAGES_PACKAGE = "pages";
+    
+    /** Argument used to build a template's locator for timing */
+    private static final String SAMPLE_ARGUMENT = "sample";
+    
+    /** Round trips timed per locator; the median is reported */
+    private static final int ROUND_TRIPS = 5;
+    
+    /** Evaluates a locator repeatedly in the page: returns [matches, microseconds per lookup] */
+    private static final String TIME_LOOKUP =
+        "var kind = arguments[0], value = arguments[1], iterations = arguments[2];"
+        + "function find() {"
+        + "  if (kind === 'xpath') {"
+        + "    return document.evaluate(value, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null).snapshotLength;"
+        + "  }"
+        + "  return document.querySelectorAll(value).length;"
+        + "}"
+        + "var matches = find();"
+        + "var start = performance.now();"
+        + "for (var i = 0; i < iterations; i++) { find(); }"
+        + "return [matches, Math.round((performance.now() - start) * 1000 / iterations)];";
+    
+    /** XPath text test that reads the text of every candidate */
+    private static final Pattern TEXT_CONTAINS =
+        Pattern.compile("contains\\(\\s*(text\\(\\)|\\.|normalize-space\\([^)]*\\))\\s*,");
+    
+    /** XPath of one step with only attribute equality tests, which CSS can express */
+    private static final Pattern CSS_EXPRESSIBLE =
+        Pattern.compile("^//([\\w-]+|\\*)((?:\\[@[\\w-]+\\s*=\\s*(?:'[^']*'|\"[^\"]*\")\\])+)$");
+    
+    /** One attribute equality test in an XPath */
+    private static final Pattern ATTRIBUTE_TEST =
+        Pattern.compile("\\[@([\\w-]+)\\s*=\\s*(?:'([^']*)'|\"([^\"]*)\")\\]");
+    
+    /** Quoted string in a selector */
+    private static final Pattern STRING_LITERAL = Pattern.compile("'[^']*'|\"[^\"]*\"");
+    
+    /** Descendant steps in a selector chain before it is flagged */
+    private static final int MAX_DESCENDANT_STEPS = 2;
+    
+    /**
+     * Slow shape found in a selector.
+     */
+    public static final class Issue {
+        private final String rule;
+        private final String detail;
+        private final String suggestion;
+        
+        Issue(String rule, String detail, String suggestion) {
+            this.rule = rule;
+            this.detail = detail;
+            this.suggestion = suggestion;
+        }
+        
+        /** @return rule name, e.g. TEXT_CONTAINS */
+        public String getRule() {
+            return rule;
+        }
+        
+        /** @return why the selector is slow */
+        public String getDetail() {
+            return detail;
+        }
+        
+        /** @return cheaper equivalent or how to get one */
+        public String getSuggestion() {
+            return suggestion;
+        }
+        
+        @Override
+        public String toString() {
+            return rule + ": " + detail + " -> " + suggestion;
+        }
+    }
+    
+    /**
+     * Measured cost and issues of one page locator.
+     */
+    public static final class Finding {
+        private final String page;
+        private final String name;
+        private final String locator;
+        private final int matches;
+        private final long lookupMicros;
+        private final long roundTripMicros;
+        private final List<Issue> issues;
+        private final boolean slow;
+        
+        Finding(String page, String name, String locator, int matches, long lookupMicros, long roundTripMicros,
+                List<Issue> issues, boolean slow) {
+            this.page = page;
+            this.name = name;
+            this.locator = locator;
+            this.matches = matches;
+            this.lookupMicros = lookupMicros;
+            this.roundTripMicros = roundTripMicros;
+            this.issues = issues;
+            this.slow = slow;
+        }
+        
+        /** @return simple name of the page class */
+        public String getPage() {
+            return page;
+        }
+        
+        /** @return field the locator is declared in */
+        public String getName() {
+            return name;
+        }
+        
+        /** @return locator description */
+        public String getLocator() {
+            return locator;
+        }
+        
+        /** @return elements matched on the analyzed page, -1 if the lookup failed */
+        public int getMatches() {
+            return matches;
+        }
+        
+        /** @return in-page cost of one lookup in microseconds, -1 if not measurable in the page */
+        public long getLookupMicros() {
+            return lookupMicros;
+        }
+        
+        /** @return median findElements round trip in microseconds */
+        public long getRoundTripMicros() {
+            return roundTripMicros;
+        }
+        
+        /** @return slow shapes found in the selector */
+        public List<Issue> getIssues() {
+            return issues;
+        }
+        
+        /** @return true if the locator is slow or has a slow shape */
+        public boolean isFlagged() {
+            return slow || !issues.isEmpty();
+        }
+        
+        /**
+         * Converts the finding to a JSON-ready map.
+         * 
+         * @return report row
+         */
+        Map<String, Object> toMap() {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("page", page);
+            row.put("field", name);
+            row.put("locator", locator);
+            row.put("matches", matches);
+            row.put("lookupMicros", lookupMicros);
+            row.put("roundTripMicros", roundTripMicros);
+            row.put("flagged", isFlagged());
+            List<Map<String, String>> issueRows = new ArrayList<>();
+            for (Issue issue : issues) {
+                Map<String, String> issueRow = new LinkedHashMap<>();
+                issueRow.put("rule", issue.rule);
+                issueRow.put("detail", issue.detail);
+                issueRow.put("suggestion", issue.suggestion);
+                issueRows.add(issueRow);
+            }
+            row.put("issues", issueRows);
+            return row;
+        }
+    }
+    
+    /** Private constructor to prevent instantiation */
+    private LocatorCostAnalyzer() {
+        throw new IllegalStateException("Utility class");
+    }
+    
+    /**
+     * Analyzes every page class against the driver's current page and writes the report.
+     * 
+     * @param driver driver showing the page to measure against
+     * @return findings, most expensive lookup first
+     */
+    public static List<Finding> analyzePages(WebDriver driver) {
+        List<Finding> findings = analyze(driver, findPageClasses());
+        ConfigReader config = ConfigReader.getInstance();
+        writeReport(findings, Path.of(config.getProperty("locator.cost.file", "target/locator-cost.json")));
+        return findings;
+    }
+    
+    /**
+     * Times and reviews the locators of the given page classes on the driver's current page.
+     * 
+     * @param driver driver showing the page to measure against
+     * @param pageClasses page object classes
+     * @return findings, most expensive lookup first
+     */
+    public static List<Finding> analyze(WebDriver driver, List<Class<?>> pageClasses) {
+        ConfigReader config = ConfigReader.getInstance();
+        int iterations = Math.max(config.getIntProperty("locator.cost.iterations", 100), 1);
+        long slowMicros = config.getIntProperty("locator.cost.slow.micros", 500);
+        
+        List<Finding> findings = new ArrayList<>();
+        for (Class<?> pageClass : pageClasses) {
+            for (Map.Entry<String, By> locator : locatorsOf(pageClass).entrySet()) {
+                findings.add(measure(driver, pageClass.getSimpleName(), locator.getKey(), locator.getValue(),
+                    iterations, slowMicros));
+            }
+        }
+        findings.sort(Comparator.comparingLong(Finding::getLookupMicros).reversed());
+        return findings;
+    }
+    
+    /**
+     * Finds the classes of the pages package on the classpath.
+     * 
+     * @return page classes, sorted by name
+     */
+    public static List<Class<?>> findPageClasses() {
+        ClassLoader loader = LocatorCostAnalyzer.class.getClassLoader();
+        List<String> names = new ArrayList<>();
+        try {
+            Enumeration<URL> roots = loader.getResources(PAGES_PACKAGE);
+            while (roots.hasMoreElements()) {
+                URL root = roots.nextElement();
+                if ("jar".equals(root.getProtocol())) {
+                    try (JarFile jar = ((JarURLConnection) root.openConnection()).getJarFile()) {
+                        jar.stream()
+                            .map(JarEntry::getName)
+                            .filter(name -> name.startsWith(PAGES_PACKAGE + "/") && name.indexOf('/', PAGES_PACKAGE.length() + 1) < 0)
+                            .forEach(name -> names.add(name.substring(PAGES_PACKAGE.length() + 1)));
+                    }
+                } else if ("file".equals(root.getProtocol())) {
+                    try (Stream<Path> files = Files.list(Path.of(root.toURI()))) {
+                        files.forEach(file -> names.add(file.getFileName().toString()));
+                    }
+                }
+            }
+        } catch (IOException | URISyntaxException e) {
+            throw new IllegalStateException("Cannot list the " + PAGES_PACKAGE + " package", e);
+        }
+        
+        List<Class<?>> classes = new ArrayList<>();
+        for (String name : names) {
+            if (!name.endsWith(".class") || name.contains("$")) {
+                continue;
+            }
+            String className = PAGES_PACKAGE + "." + name.substring(0, name.length() - ".class".length());
+            try {
+                classes.add(Class.forName(className, false, loader));
+            } catch (ClassNotFoundException e) {
+                LOG.warn("Skipping {}: {}", className, e.getMessage());
+            }
+        }
+        classes.sort(Comparator.comparing(Class::getName));
+        return classes;
+    }
+    
+    /**
+     * Collects the locators a page class declares.
+     * 
+     * @param pageClass page object class
+     * @return locator by field name, in declaration order
+     */
+    static Map<String, By> locatorsOf(Class<?> pageClass) {
+        Map<String, By> locators = new LinkedHashMap<>();
+        for (Class<?> type = pageClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (field.isAnnotationPresent(FindBy.class) || field.isAnnotationPresent(FindBys.class)
+                        || field.isAnnotationPresent(FindAll.class)) {
+                    locators.putIfAbsent(field.getName(), new Annotations(field).buildBy());
+                } else if (field.getType() == LocatorTemplate.class && Modifier.isStatic(field.getModifiers())) {
+                    try {
+                        field.setAccessible(true);
+                        LocatorTemplate template = (LocatorTemplate) field.get(null);
+                        String[] sample = new String[template.getArity()];
+                        Arrays.fill(sample, SAMPLE_ARGUMENT);
+                        locators.putIfAbsent(field.getName(), template.with(sample));
+                    } catch (IllegalAccessException e) {
+                        LOG.warn("Cannot read template {}.{}: {}", type.getSimpleName(), field.getName(), e.getMessage());
+                    }
+                }
+            }
+        }
+        return locators;
+    }
+    
+    /**
+     * Times one locator and reviews its selector.
+     * 
+     * @param driver driver showing the page to measure against
+     * @param page page class name
+     * @param name field name
+     * @param locator locator to measure
+     * @param iterations in-page lookups to average over
+     * @param slowMicros in-page cost from which a locator counts as slow
+     * @return finding
+     */
+    private static Finding measure(WebDriver driver, String page, String name, By locator, int iterations,
+                                   long slowMicros) {
+        List<Issue> issues = review(locator);
+        int matches = -1;
+        long lookupMicros = -1;
+        String[] pageLocator = WaitEngine.toPageLocator(locator);
+        if (pageLocator != null) {
+            try {
+                List<?> result = (List<?>) ((JavascriptExecutor) driver)
+                    .executeScript(TIME_LOOKUP, pageLocator[0], pageLocator[1], iterations);
+                matches = ((Number) result.get(0)).intValue();
+                lookupMicros = ((Number) result.get(1)).longValue();
+            } catch (WebDriverException e) {
+                issues.add(new Issue("INVALID", "selector failed in the page: " + firstLine(e.getMessage()),
+                    "fix the selector"));
+            }
+        }
+        
+        long[] roundTrips = new long[ROUND_TRIPS];
+        for (int i = 0; i < ROUND_TRIPS; i++) {
+            long start = System.nanoTime();
+            try {
+                int found = driver.findElements(locator).size();
+                if (matches < 0) {
+                    matches = found;
+                }
+            } catch (WebDriverException e) {
+                // Already reported by the in-page lookup, or timed as a failed round trip
+            }
+            roundTrips[i] = (System.nanoTime() - start) / 1000;
+        }
+        Arrays.sort(roundTrips);
+        
+        return new Finding(page, name, locator.toString(), matches, lookupMicros, roundTrips[ROUND_TRIPS / 2],
+            issues, lookupMicros >= slowMicros);
+    }
+    
+    /**
+     * Checks a selector for slow shapes.
+     * 
+     * @param locator locator to review
+     * @return issues found, empty if none
+     */
+    static List<Issue> review(By locator) {
+        List<Issue> issues = new ArrayList<>();
+        String text = locator.toString();
+        int separator = text.indexOf(": ");
+        if (separator < 0) {
+            return issues;
+        }
+        String strategy = text.substring(0, separator);
+        String value = text.substring(separator + 2);
+        switch (strategy) {
+            case "By.xpath":
+                reviewXpath(value, issues);
+                break;
+            case "By.cssSelector":
+                reviewCss(value, issues);
+                break;
+            case "By.partialLinkText":
+                issues.add(new Issue("TEXT_CONTAINS", "reads and scans the text of every link on the page",
+                    "match the link by href, e.g. By.cssSelector(\"a[href*='...']\"), or use By.linkText"));
+                break;
+            default:
+                break;
+        }
+        return issues;
+    }
+    
+    /**
+     * Reviews an XPath selector.
+     * 
+     * @param xpath selector
+     * @param issues list the issues are added to
+     */
+    private static void reviewXpath(String xpath, List<Issue> issues) {
+        String shape = STRING_LITERAL.matcher(xpath).replaceAll("''");
+        
+        if (TEXT_CONTAINS.matcher(shape).find()) {
+            issues.add(new Issue("TEXT_CONTAINS",
+                "reads the text of every candidate element" + (shape.startsWith("//") ? " in the document" : ""),
+                "match an attribute instead (id, data-test, name); if text is the only handle, "
+                    + "anchor the step under a container with an id, e.g. //*[@id='results']/div[...]"));
+        }
+        
+        int descendantSteps = count(shape, "//") + count(shape, "descendant::") + count(shape, "descendant-or-self::");
+        if (descendantSteps > MAX_DESCENDANT_STEPS) {
+            issues.add(new Issue("DEEP_DESCENDANT",
+                descendantSteps + " descendant steps; each searches the whole subtree of every match of the previous",
+                "keep the first // and use child steps where the structure is fixed: " + childSteps(xpath)));
+        }
+        
+        if (shape.startsWith("//*") && !shape.startsWith("//*[@id=")) {
+            issues.add(new Issue("WILDCARD", "tests every element in the document",
+                "name the element, e.g. //div" + xpath.substring(3)));
+        }
+        
+        Matcher simple = CSS_EXPRESSIBLE.matcher(xpath);
+        if (simple.matches()) {
+            issues.add(new Issue("CSS_EXPRESSIBLE", "plain attribute match evaluated by the XPath engine",
+                cssFor(simple.group(1), simple.group(2))));
+        }
+    }
+    
+    /**
+     * Reviews a CSS selector.
+     * 
+     * @param css selector
+     * @param issues list the issues are added to
+     */
+    private static void reviewCss(String css, List<Issue> issues) {
+        String shape = STRING_LITERAL.matcher(css).replaceAll("''")
+            .replaceAll("\\[[^\\]]*\\]", "[]")
+            .replaceAll("\\s*([>+~,])\\s*", "$1")
+            .trim();
+        int descendantSteps = count(shape, " ");
+        if (descendantSteps > MAX_DESCENDANT_STEPS) {
+            issues.add(new Issue("DEEP_DESCENDANT",
+                descendantSteps + " descendant combinators; the browser matches each right to left through every ancestor",
+                "use child combinators (>) where the structure is fixed, or anchor on an id"));
+        }
+        if (shape.startsWith("*") || shape.contains(" *")) {
+            issues.add(new Issue("WILDCARD", "tests every element in scope", "name the element"));
+        }
+    }
+    
+    /**
+     * Builds the CSS equivalent of a one-step XPath with attribute equality tests.
+     * 
+     * @param tag element name or *
+     * @param predicates the XPath predicates
+     * @return suggested locator
+     */
+    private static String cssFor(String tag, String predicates) {
+        List<String[]> tests = new ArrayList<>();
+        Matcher test = ATTRIBUTE_TEST.matcher(predicates);
+        while (test.find()) {
+            tests.add(new String[] {test.group(1), test.group(2) != null ? test.group(2) : test.group(3)});
+        }
+        if (tests.size() == 1 && "id".equals(tests.get(0)[0])) {
+            return "By.id(\"" + tests.get(0)[1] + "\")";
+        }
+        StringBuilder css = new StringBuilder("*".equals(tag) ? "" : tag);
+        for (String[] attribute : tests) {
+            css.append('[').append(attribute[0]).append("=\"").append(WaitEngine.escapeAttribute(attribute[1])).append("\"]");
+        }
+        return "By.cssSelector(\"" + css.toString().replace("\\", "\\\\").replace("\"", "\\\"") + "\")";
+    }
+    
+    /**
+     * Replaces every descendant step after the first with a child step, outside string literals.
+     * 
+     * @param xpath selector
+     * @return rewritten selector
+     */
+    private static String childSteps(String xpath) {
+        StringBuilder rewritten = new StringBuilder();
+        Matcher literal = STRING_LITERAL.matcher(xpath);
+        int position = 0;
+        boolean first = true;
+        while (position < xpath.length()) {
+            int literalStart = literal.find(position) ? literal.start() : xpath.length();
+            String segment = xpath.substring(position, literalStart);
+            int index;
+            while ((index = segment.indexOf("//")) >= 0) {
+                rewritten.append(segment, 0, index).append(first ? "//" : "/");
+                first = false;
+                segment = segment.substring(index + 2);
+            }
+            rewritten.append(segment);
+            if (literalStart < xpath.length()) {
+                rewritten.append(literal.group());
+                position = literal.end();
+            } else {
+                position = literalStart;
+            }
+        }
+        return rewritten.toString();
+    }
+    
+    /**
+     * Counts occurrences of a token.
+     * 
+     * @param text text to search
+     * @param token token to count
+     * @return number of non-overlapping occurrences
+     */
+    private static int count(String text, String token) {
+        int count = 0;
+        for (int index = text.indexOf(token); index >= 0; index = text.indexOf(token, index + token.length())) {
+            count++;
+        }
+        return count;
+    }
+    
+    /**
+     * Shortens a WebDriver error message to its first line.
+     * 
+     * @param message exception message
+     * @return first line, or empty for no message
+     */
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "";
+        }
+        int end = message.indexOf('\n');
+        return end < 0 ? message : message.substring(0, end);
+    }
+    
+    /**
+     * Logs the findings and writes them as JSON.
+     * 
+     * @param findings analyzed locators
+     * @param file report file
+     */
+    public static void writeReport(List<Finding> findings, Path file) {
+        long flagged = findings.stream().filter(Finding::isFlagged).count();
+        LOG.info("Locator cost: {} locators, {} flagged", findings.size(), flagged);
+        for (Finding finding : findings) {
+            LOG.info("{} {}.{} {} matches={} lookup={}us roundTrip={}us", finding.isFlagged() ? "⚠" : " ",
+                finding.page, finding.name, finding.locator, finding.matches, finding.lookupMicros,
+                finding.roundTripMicros);
+            for (Issue issue : finding.issues) {
+                LOG.warn("    {}", issue);
+            }
+        }
+        
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Finding finding : findings) {
+            rows.add(finding.toMap());
+        }
+        try {
+            if (file.toAbsolutePath().getParent() != null) {
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            }
+            Files.writeString(file, new Json().toJson(rows));
+            LOG.info("Locator cost report written to {}", file);
+        } catch (IOException e) {
+            LOG.warn("Failed to write locator cost report: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package utils;
+
+import org.openqa.selenium.By;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Parameterized locator whose {@link By} objects are built once per argument list.
+ * Page objects declare dynamic locators as {@code static final} templates with
+ * {@code %s} placeholders instead of concatenating a selector on every call.
+ * Arguments are quoted for the selector language, so values containing quotes
+ * cannot break the selector. Built locators are kept in a small LRU cache per
+ * template. {@link LocatorCostAnalyzer} finds templates in page classes and
+ * times them next to the {@code @FindBy} fields.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public final class LocatorTemplate {
+    
+    /** Built locators kept per template */
+    private static final int MAX_CACHED = 256;
+    
+    /** Selector with %s placeholders */
+    private final String pattern;
+    
+    /** Quotes one argument for the selector language */
+    private final Function<String, String> quoter;
+    
+    /** Builds the locator from the finished selector */
+    private final Function<String, By> factory;
+    
+    /** Built locators by argument list, least recently used first */
+    private final Map<List<String>, By> cache = Collections.synchronizedMap(
+        new LinkedHashMap<List<String>, By>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<List<String>, By> eldest) {
+                return size() > MAX_CACHED;
+            }
+        });
+    
+    /** Cache statistics */
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    
+    /**
+     * Creates a template.
+     * 
+     * @param pattern selector with %s placeholders
+     * @param quoter quotes one argument for the selector language
+     * @param factory builds the locator from the finished selector
+     */
+    private LocatorTemplate(String pattern, Function<String, String> quoter, Function<String, By> factory) {
+        this.pattern = pattern;
+        this.quoter = quoter;
+        this.factory = factory;
+    }
+    
+    /**
+     * Creates an XPath template; each %s is replaced by an XPath string literal.
+     * 
+     * @param pattern XPath with %s placeholders, e.g. {@code //div[@title=%s]}
+     * @return template
+     */
+    public static LocatorTemplate xpath(String pattern) {
+        return new LocatorTemplate(pattern, WaitEngine::xpathLiteral, By::xpath);
+    }
+    
+    /**
+     * Creates a CSS template; each %s is replaced by a quoted CSS string.
+     * 
+     * @param pattern CSS selector with %s placeholders, e.g. {@code [data-product=%s]}
+     * @return template
+     */
+    public static LocatorTemplate css(String pattern) {
+        return new LocatorTemplate(pattern, value -> "\"" + WaitEngine.escapeAttribute(value) + "\"", By::cssSelector);
+    }
+    
+    /**
+     * Gets the locator for the given arguments, building it on first use.
+     * 
+     * @param args one value per placeholder
+     * @return locator
+     */
+    public By with(String... args) {
+        List<String> key = List.of(args);
+        By by = cache.get(key);
+        if (by != null) {
+            hits.incrementAndGet();
+            return by;
+        }
+        misses.incrementAndGet();
+        Object[] quoted = new Object[args.length];
+        for (int i = 0; i < args.length; i++) {
+            quoted[i] = quoter.apply(args[i]);
+        }
+        by = factory.apply(String.format(pattern, quoted));
+        cache.put(key, by);
+        return by;
+    }
+    
+    /**
+     * Gets the selector pattern.
+     * 
+     * @return selector with %s placeholders
+     */
+    public String getPattern() {
+        return pattern;
+    }
+    
+    /**
+     * Counts the placeholders in the pattern.
+     * 
+     * @return number of arguments {@link #with(String...)} expects
+     */
+    public int getArity() {
+        return pattern.split("%s", -1).length - 1;
+    }
+    
+    /**
+     * Fraction of lookups served from the cache.
+     * 
+     * @return hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0 : (double) hits.get() / total;
+    }
+    
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
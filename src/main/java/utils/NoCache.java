@@ -0,0 +1,20 @@
+package utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opts a page-object field out of element caching.
+ * Fields marked with this annotation are looked up again on every use,
+ * for elements that are re-rendered often enough that caching them only
+ * produces stale references.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface NoCache {
+}
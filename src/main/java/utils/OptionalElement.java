@@ -0,0 +1,19 @@
+package utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a page-object field that is not part of the page when it first loads,
+ * such as a message shown only after an action. Such fields are ignored by
+ * {@link WaitHelper#waitForPageReady(Object)}.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface OptionalElement {
+}
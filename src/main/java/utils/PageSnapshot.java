@@ -0,0 +1,237 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.pagefactory.Annotations;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Immutable state of several page-object elements, read in one script execution.
+ * Reading the text, visibility and attributes of N fields through their proxies
+ * costs a find plus a command per property; a snapshot locates every field's
+ * element in the page and reads all of it in a single round trip. Tests assert
+ * against the snapshot instead of calling the getters one by one. Visibility
+ * follows the same rules as the in-page waits (rendered, non-zero size, not
+ * hidden by CSS), which is close to but not identical to
+ * {@link WebElement#isDisplayed()}. Bounding boxes are relative to the document,
+ * like {@link WebElement#getRect()}, whichever way the element was read.
+ * The script locates elements in the page itself, outside Healenium, so a
+ * field it does not find is looked up once more through the driver: with a
+ * self-healing driver that lookup heals a broken locator like any other find,
+ * at the cost of one command per missing field.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public final class PageSnapshot {
+    
+    /** Reads each (kind, value) pair in args[0] into a plain object, or null when absent */
+    private static final String READ_ELEMENTS =
+        "return args[0].map(function (locator) {"
+        + "  var el = locator ? locate(locator[0], locator[1]) : null;"
+        + "  if (!el) { return null; }"
+        + "  var attributes = {};"
+        + "  for (var i = 0; i < el.attributes.length; i++) { attributes[el.attributes[i].name] = el.attributes[i].value; }"
+        + "  if ('value' in el) { attributes.value = String(el.value); }"
+        + "  var rect = el.getBoundingClientRect();"
+        + "  return {text: (el.innerText || el.textContent || '').trim(), displayed: visible(el),"
+        + "    attributes: attributes, x: Math.round(rect.left + window.pageXOffset), y: Math.round(rect.top + window.pageYOffset),"
+        + "    width: Math.round(rect.width), height: Math.round(rect.height)};"
+        + "});";
+    
+    /** Locators of page-object fields, resolved once per field */
+    private static final Map<Field, By> LOCATORS = new ConcurrentHashMap<>();
+    
+    /** State per field name, in requested order */
+    private final Map<String, ElementState> states;
+    
+    /**
+     * State of one element at the time of the snapshot.
+     */
+    public static final class ElementState {
+        
+        private final boolean present;
+        private final String text;
+        private final boolean displayed;
+        private final Map<String, String> attributes;
+        private final Rectangle rect;
+        
+        private ElementState(boolean present, String text, boolean displayed,
+                             Map<String, String> attributes, Rectangle rect) {
+            this.present = present;
+            this.text = text;
+            this.displayed = displayed;
+            this.attributes = attributes;
+            this.rect = rect;
+        }
+        
+        /** @return true if the element was in the page */
+        public boolean isPresent() {
+            return present;
+        }
+        
+        /** @return rendered text, empty when absent */
+        public String getText() {
+            return text;
+        }
+        
+        /** @return true if the element was present and visible */
+        public boolean isDisplayed() {
+            return displayed;
+        }
+        
+        /**
+         * Gets an attribute value; {@code value} holds the current value of form fields.
+         * 
+         * @param name attribute name
+         * @return attribute value, or null if not set or the element is absent
+         */
+        public String getAttribute(String name) {
+            return attributes.get(name);
+        }
+        
+        /** @return all attributes, unmodifiable */
+        public Map<String, String> getAttributes() {
+            return attributes;
+        }
+        
+        /** @return bounding box relative to the document, or null when absent */
+        public Rectangle getRect() {
+            return rect;
+        }
+        
+        @Override
+        public String toString() {
+            return present ? "{text='" + text + "', displayed=" + displayed + ", rect=" + rect + "}" : "{absent}";
+        }
+    }
+    
+    private PageSnapshot(Map<String, ElementState> states) {
+        this.states = Collections.unmodifiableMap(states);
+    }
+    
+    /**
+     * Reads the current state of page-object fields in one script execution.
+     * 
+     * @param driver WebDriver instance
+     * @param page page object declaring the {@code @FindBy} fields
+     * @param fieldNames names of the fields to read
+     * @return immutable snapshot
+     */
+    public static PageSnapshot of(WebDriver driver, Object page, String... fieldNames) {
+        List<By> locators = new ArrayList<>();
+        List<Object> pageLocators = new ArrayList<>();
+        for (String name : fieldNames) {
+            By locator = LOCATORS.computeIfAbsent(findField(page.getClass(), name), f -> new Annotations(f).buildBy());
+            locators.add(locator);
+            String[] pageLocator = WaitEngine.toPageLocator(locator);
+            pageLocators.add(pageLocator == null ? null : Arrays.asList(pageLocator));
+        }
+        
+        List<?> results = (List<?>) new WaitEngine(driver).evaluate(READ_ELEMENTS, pageLocators);
+        Map<String, ElementState> states = new LinkedHashMap<>();
+        for (int i = 0; i < fieldNames.length; i++) {
+            Map<?, ?> result = pageLocators.get(i) == null ? null : (Map<?, ?>) results.get(i);
+            states.put(fieldNames[i], result == null ? readFromJava(driver, locators.get(i)) : fromScript(result));
+        }
+        return new PageSnapshot(states);
+    }
+    
+    /**
+     * Gets the state of a field.
+     * 
+     * @param fieldName name of the page-object field
+     * @return element state
+     * @throws IllegalArgumentException if the field was not part of the snapshot
+     */
+    public ElementState get(String fieldName) {
+        ElementState state = states.get(fieldName);
+        if (state == null) {
+            throw new IllegalArgumentException("Field '" + fieldName + "' is not in this snapshot: " + states.keySet());
+        }
+        return state;
+    }
+    
+    /** @return names of the fields in the snapshot, in requested order */
+    public Set<String> getFieldNames() {
+        return states.keySet();
+    }
+    
+    @Override
+    public String toString() {
+        return states.toString();
+    }
+    
+    /**
+     * Converts the script result of one element.
+     */
+    private static ElementState fromScript(Map<?, ?> result) {
+        Map<String, String> attributes = new LinkedHashMap<>();
+        Object raw = result.get("attributes");
+        if (raw instanceof Map) {
+            ((Map<?, ?>) raw).forEach((k, v) -> attributes.put(String.valueOf(k), String.valueOf(v)));
+        }
+        Rectangle rect = new Rectangle(asInt(result.get("x")), asInt(result.get("y")),
+            asInt(result.get("height")), asInt(result.get("width")));
+        return new ElementState(true, String.valueOf(result.get("text")), Boolean.TRUE.equals(result.get("displayed")),
+            Collections.unmodifiableMap(attributes), rect);
+    }
+    
+    /**
+     * Reads an element with WebDriver commands, for locators with no in-page equivalent
+     * and elements the script did not find; the find goes through the driver's healing.
+     */
+    private static ElementState readFromJava(WebDriver driver, By locator) {
+        WebElement element;
+        try {
+            element = driver.findElement(locator);
+        } catch (NoSuchElementException e) {
+            return absent();
+        }
+        Map<String, String> attributes = new LinkedHashMap<>();
+        String value = element.getDomProperty("value");
+        if (value != null) {
+            attributes.put("value", value);
+        }
+        return new ElementState(true, element.getText(), element.isDisplayed(),
+            Collections.unmodifiableMap(attributes), element.getRect());
+    }
+    
+    private static ElementState absent() {
+        return new ElementState(false, "", false, Collections.emptyMap(), null);
+    }
+    
+    /**
+     * Finds a declared {@code @FindBy} field in the page class or its superclasses.
+     */
+    private static Field findField(Class<?> pageClass, String name) {
+        for (Class<?> type = pageClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            try {
+                Field field = type.getDeclaredField(name);
+                if (field.isAnnotationPresent(FindBy.class)) {
+                    return field;
+                }
+            } catch (NoSuchFieldException e) {
+                // Try the superclass
+            }
+        }
+        throw new IllegalArgumentException("No @FindBy field '" + name + "' in " + pageClass.getName());
+    }
+    
+    private static int asInt(Object value) {
+        return value instanceof Number ? ((Number) value).intValue() : 0;
+    }
+}
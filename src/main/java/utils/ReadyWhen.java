@@ -0,0 +1,29 @@
+package utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares a custom readiness predicate for a page object.
+ * The value is a JavaScript function body evaluated in the page by
+ * {@link WaitHelper#waitForPageReady(Object)}; the page is ready once it returns
+ * a truthy value. The helpers {@code locate(kind, value)} and {@code visible(el)}
+ * are available. Without this annotation the page is ready once its
+ * {@code @FindBy} fields are present.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface ReadyWhen {
+    
+    /**
+     * In-page readiness predicate.
+     * 
+     * @return JavaScript function body returning true when the page is ready
+     */
+    String value();
+}
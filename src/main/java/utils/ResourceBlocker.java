@@ -0,0 +1,407 @@
+package utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.NetworkInterceptor;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.remote.http.Contents;
+import org.openqa.selenium.remote.http.Filter;
+import org.openqa.selenium.remote.http.HttpResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Blocks resource classes the tests do not need (images, fonts, media,
+ * analytics, or custom URL patterns) on Chromium sessions through DevTools.
+ * In {@code block} mode the browser refuses matching requests itself
+ * (Network.setBlockedURLs), which costs nothing per request. In {@code stub}
+ * mode every request is routed through Selenium's NetworkInterceptor and
+ * matching ones get an empty response of the right type, for pages that
+ * break on failed loads. In {@code measure} mode nothing is blocked; the
+ * encoded size DevTools reports (Network.loadingFinished) for every matching
+ * response is recorded and saved to {@code network.block.sizes.file} at the end
+ * of the run. Blocked requests are counted per session, and the bytes they
+ * would have cost are taken from the sizes of such a baseline run. URLs
+ * without a baseline size are counted only; nothing is ever fetched to learn a
+ * size, so blocked analytics never receive a hit.
+ * Blocking is off by default. {@code network.block.enabled=true} (or -D)
+ * blocks on every session as it is created; a test can instead opt in for its
+ * own lease with {@link #enable(WebDriver)}, and such a session is discarded
+ * afterwards so other tests never inherit the blocking.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class ResourceBlocker {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(ResourceBlocker.class);
+    
+    /** URL patterns per resource class ({@code *} matches anything) */
+    private static final Map<String, List<String>> CLASSES = new LinkedHashMap<>();
+    
+    static {
+        CLASSES.put("image", List.of("*.png*", "*.jpg*", "*.jpeg*", "*.gif*", "*.webp*", "*.svg*", "*.ico*"));
+        CLASSES.put("font", List.of("*.woff*", "*.woff2*", "*.ttf*", "*.otf*", "*.eot*"));
+        CLASSES.put("media", List.of("*.mp4*", "*.webm*", "*.mp3*", "*.ogg*"));
+        CLASSES.put("analytics", List.of("*google-analytics.com*", "*googletagmanager.com*", "*doubleclick.net*",
+            "*/analytics.js*", "*/gtag/js*", "*hotjar.com*", "*segment.io*"));
+    }
+    
+    /** Smallest valid GIF, served for stubbed images */
+    private static final byte[] EMPTY_GIF = Base64.getDecoder().decode(
+        "R0lGODlhAQABAIAAAAAAAP///yH5BAEAAAAALAAAAAABAAEAAAIBRAA7");
+    
+    /** Blockers by delegate driver */
+    private static final Map<WebDriver, ResourceBlocker> BLOCKERS = Collections.synchronizedMap(new WeakHashMap<>());
+    
+    /** Encoded resource sizes by URL, from a measure run */
+    private static final Map<String, Long> SIZES = new ConcurrentHashMap<>();
+    
+    /** Whether sizes were measured in this run and need saving */
+    private static volatile boolean measured;
+    
+    static {
+        loadSizes();
+    }
+    
+    /** Totals across all sessions */
+    private static final AtomicLong TOTAL_REQUESTS = new AtomicLong();
+    private static final AtomicLong TOTAL_BYTES = new AtomicLong();
+    
+    /** Patterns in DevTools wildcard form */
+    private final List<String> patterns;
+    
+    /** Same patterns as regular expressions, for stub mode and size attribution */
+    private final List<Pattern> regexes = new ArrayList<>();
+    
+    /** Requests blocked in this session */
+    private final AtomicLong blockedRequests = new AtomicLong();
+    
+    /** Bytes saved in this session */
+    private final AtomicLong savedBytes = new AtomicLong();
+    
+    /** Counters when the current test started */
+    private long markRequests;
+    private long markBytes;
+    
+    /** Request URLs by DevTools request id, for block mode accounting */
+    private final Map<String, String> requestUrls = new ConcurrentHashMap<>();
+    
+    /** Interceptor kept open for the session in stub mode */
+    private NetworkInterceptor interceptor;
+    
+    /**
+     * Creates a blocker for the given patterns.
+     * 
+     * @param patterns URL patterns where {@code *} matches anything
+     */
+    private ResourceBlocker(List<String> patterns) {
+        this.patterns = patterns;
+        for (String pattern : patterns) {
+            List<String> parts = new ArrayList<>();
+            for (String part : pattern.split("\\*", -1)) {
+                parts.add(Pattern.quote(part));
+            }
+            regexes.add(Pattern.compile(String.join(".*", parts)));
+        }
+    }
+    
+    /**
+     * Attaches blocking to a newly created browser when {@code network.block.enabled} is set.
+     * 
+     * @param delegate real browser driver (not the healing wrapper)
+     */
+    public static void attach(WebDriver delegate) {
+        if (isEnabled()) {
+            enable(delegate);
+        }
+    }
+    
+    /**
+     * Checks whether every session blocks resources.
+     * 
+     * @return value of {@code network.block.enabled}
+     */
+    public static boolean isEnabled() {
+        return ConfigReader.getInstance().getBooleanProperty("network.block.enabled", false);
+    }
+    
+    /**
+     * Blocks the resource classes and patterns configured by {@code network.block.*}
+     * on one session. Browsers without DevTools support are left untouched.
+     * 
+     * @param driver pooled driver or browser driver
+     * @return blocker attached to the session, or null if blocking is not available
+     */
+    public static ResourceBlocker enable(WebDriver driver) {
+        WebDriver delegate = DriverManager.getDelegate(driver);
+        if (!(delegate instanceof HasDevTools)) {
+            return null;
+        }
+        ResourceBlocker attached = BLOCKERS.get(delegate);
+        if (attached != null) {
+            return attached;
+        }
+        ConfigReader config = ConfigReader.getInstance();
+        List<String> patterns = new ArrayList<>();
+        for (String name : config.getProperty("network.block.classes", "").split(",")) {
+            List<String> classPatterns = CLASSES.get(name.trim().toLowerCase());
+            if (classPatterns != null) {
+                patterns.addAll(classPatterns);
+            } else if (!name.isBlank()) {
+                LOG.warn("Unknown resource class '{}', known: {}", name.trim(), CLASSES.keySet());
+            }
+        }
+        for (String pattern : config.getProperty("network.block.patterns", "").split(",")) {
+            if (!pattern.isBlank()) {
+                patterns.add(pattern.trim());
+            }
+        }
+        if (patterns.isEmpty()) {
+            return null;
+        }
+        
+        ResourceBlocker blocker = new ResourceBlocker(patterns);
+        String mode = config.getProperty("network.block.mode", "block");
+        try {
+            if ("stub".equalsIgnoreCase(mode)) {
+                blocker.stub(delegate);
+            } else {
+                blocker.block(((HasDevTools) delegate).getDevTools(), "measure".equalsIgnoreCase(mode));
+            }
+            BLOCKERS.put(delegate, blocker);
+            return blocker;
+        } catch (RuntimeException e) {
+            LOG.warn("Resource blocking not available for this browser: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Finds the blocker attached to a session.
+     * 
+     * @param driver pooled driver or browser driver
+     * @return blocker, or null if none is attached
+     */
+    public static ResourceBlocker forDriver(WebDriver driver) {
+        return driver == null ? null : BLOCKERS.get(DriverManager.getDelegate(driver));
+    }
+    
+    /**
+     * Gets the requests and bytes saved across all sessions.
+     * 
+     * @return summary line
+     */
+    public static String getTotals() {
+        return "Blocked requests: " + TOTAL_REQUESTS.get() + ", saved: " + TOTAL_BYTES.get() / 1024 + " KB";
+    }
+    
+    /** @return requests blocked in this session so far */
+    public long getBlockedRequests() {
+        return blockedRequests.get();
+    }
+    
+    /** @return bytes saved in this session so far, for URLs with a measured size */
+    public long getSavedBytes() {
+        return savedBytes.get();
+    }
+    
+    /**
+     * Starts counting for a new test on this session.
+     */
+    public void mark() {
+        markRequests = blockedRequests.get();
+        markBytes = savedBytes.get();
+    }
+    
+    /**
+     * Describes what was saved since {@link #mark()}.
+     * 
+     * @return summary line
+     */
+    public String describeSinceMark() {
+        return "Blocked requests: " + (blockedRequests.get() - markRequests)
+            + ", saved: " + (savedBytes.get() - markBytes) / 1024 + " KB";
+    }
+    
+    /**
+     * Checks whether a URL is matched by the blocking patterns.
+     * 
+     * @param url request URL
+     * @return true if the URL would be blocked
+     */
+    public boolean matches(String url) {
+        for (Pattern regex : regexes) {
+            if (regex.matcher(url).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Records the encoded size of a resource, as a measure run does for every matching response.
+     * Callers that know a size up front, such as tests serving their own fixtures, can record it
+     * directly; only sizes measured from the browser are saved.
+     * 
+     * @param url resource URL
+     * @param encodedBytes bytes the resource costs on the wire
+     */
+    public static void recordSize(String url, long encodedBytes) {
+        SIZES.merge(url, encodedBytes, Math::max);
+    }
+    
+    /**
+     * Saves the sizes measured in this run for later blocking runs.
+     * Does nothing unless the run used {@code measure} mode.
+     */
+    public static void saveSizes() {
+        if (!measured) {
+            return;
+        }
+        Path file = sizesFile();
+        Properties properties = new Properties();
+        SIZES.forEach((url, size) -> properties.setProperty(url, String.valueOf(size)));
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (OutputStream out = Files.newOutputStream(file)) {
+                properties.store(out, "Encoded resource sizes measured by ResourceBlocker");
+            }
+            LOG.info("Saved {} resource sizes to {}", SIZES.size(), file);
+        } catch (IOException e) {
+            LOG.warn("Cannot save resource sizes to {}: {}", file, e.getMessage());
+        }
+    }
+    
+    /**
+     * Loads the sizes saved by an earlier measure run, if any.
+     */
+    private static void loadSizes() {
+        Path file = sizesFile();
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(file)) {
+            properties.load(in);
+            for (String url : properties.stringPropertyNames()) {
+                SIZES.put(url, Long.parseLong(properties.getProperty(url)));
+            }
+        } catch (IOException | NumberFormatException e) {
+            LOG.warn("Cannot load resource sizes from {}: {}", file, e.getMessage());
+        }
+    }
+    
+    /**
+     * Resolves the file measured sizes are saved to.
+     */
+    private static Path sizesFile() {
+        return Paths.get(ConfigReader.getInstance().getProperty("network.block.sizes.file", "target/resource-sizes.properties"));
+    }
+    
+    /**
+     * Blocks in the browser, or only measures matching responses,
+     * and counts blocked requests from network events.
+     * 
+     * @param devTools DevTools of the session
+     * @param measureOnly true to record sizes without blocking
+     */
+    private void block(DevTools devTools, boolean measureOnly) {
+        devTools.createSessionIfThereIsNotOne();
+        devTools.addListener(new Event<Map<String, Object>>("Network.requestWillBeSent",
+                input -> input.read(Json.MAP_TYPE)),
+            event -> {
+                Object request = event.get("request");
+                if (request instanceof Map) {
+                    requestUrls.put(String.valueOf(event.get("requestId")), String.valueOf(((Map<?, ?>) request).get("url")));
+                }
+            });
+        devTools.addListener(new Event<Map<String, Object>>("Network.loadingFinished",
+                input -> input.read(Json.MAP_TYPE)),
+            event -> {
+                String url = requestUrls.remove(String.valueOf(event.get("requestId")));
+                Object size = event.get("encodedDataLength");
+                if (measureOnly && url != null && size instanceof Number && matches(url)) {
+                    recordSize(url, ((Number) size).longValue());
+                    measured = true;
+                }
+            });
+        devTools.addListener(new Event<Map<String, Object>>("Network.loadingFailed",
+                input -> input.read(Json.MAP_TYPE)),
+            event -> {
+                String url = requestUrls.remove(String.valueOf(event.get("requestId")));
+                if (url != null && event.get("blockedReason") != null) {
+                    count(url);
+                }
+            });
+        devTools.send(new Command<>("Network.enable", Map.of()));
+        if (!measureOnly) {
+            devTools.send(new Command<>("Network.setBlockedURLs", Map.of("urls", patterns)));
+        }
+    }
+    
+    /**
+     * Answers matching requests with empty content through Selenium's interceptor.
+     * 
+     * @param delegate real browser driver
+     */
+    private void stub(WebDriver delegate) {
+        Filter filter = next -> request -> {
+            String url = request.getUri();
+            if (!matches(url)) {
+                return next.execute(request);
+            }
+            count(url);
+            String path = url.replaceFirst("[?#].*$", "").toLowerCase();
+            HttpResponse response = new HttpResponse().setStatus(200);
+            if (path.endsWith(".js")) {
+                response.addHeader("Content-Type", "application/javascript").setContent(Contents.utf8String(""));
+            } else if (path.endsWith(".css")) {
+                response.addHeader("Content-Type", "text/css").setContent(Contents.utf8String(""));
+            } else if (CLASSES.get("image").stream().anyMatch(p -> path.endsWith(p.replace("*", "")))) {
+                response.addHeader("Content-Type", "image/gif").setContent(Contents.bytes(EMPTY_GIF));
+            } else {
+                response.setStatus(204);
+            }
+            return response;
+        };
+        interceptor = new NetworkInterceptor(delegate, filter);
+    }
+    
+    /**
+     * Counts one blocked request and its measured size, if the baseline has one.
+     * 
+     * @param url blocked URL
+     */
+    private void count(String url) {
+        blockedRequests.incrementAndGet();
+        TOTAL_REQUESTS.incrementAndGet();
+        Long size = SIZES.get(url);
+        if (size != null && size > 0) {
+            savedBytes.addAndGet(size);
+            TOTAL_BYTES.addAndGet(size);
+        }
+    }
+}
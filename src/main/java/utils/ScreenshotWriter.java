@@ -0,0 +1,309 @@
+package utils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background screenshot writer.
+ * Screenshots are taken as bytes (no browser temp file), hashed on the caller
+ * to skip images identical to one already saved, and handed to a bounded queue
+ * drained by a single writer thread that writes through NIO channels. When the
+ * queue is full the caller blocks, so a failure storm cannot exhaust memory.
+ * Optional JPEG re-encoding and file count / total size retention limits keep
+ * failure-heavy runs from filling the disk.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class ScreenshotWriter {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(ScreenshotWriter.class);
+    
+    /** Shared writer, configured from config.properties */
+    private static volatile ScreenshotWriter instance;
+    
+    /** Marker telling the writer thread to stop */
+    private static final Job POISON = new Job(null, null, null);
+    
+    /**
+     * Screenshot waiting to be written.
+     */
+    private static final class Job {
+        private final Path path;
+        private final byte[] png;
+        private final String hash;
+        
+        Job(Path path, byte[] png, String hash) {
+            this.path = path;
+            this.png = png;
+            this.hash = hash;
+        }
+    }
+    
+    /** Directory screenshots are written to */
+    private final Path directory;
+    
+    /** Output format: png (as captured) or jpg */
+    private final String format;
+    
+    /** JPEG quality between 0 and 1 */
+    private final float jpegQuality;
+    
+    /** Maximum number of screenshot files kept */
+    private final int maxFiles;
+    
+    /** Maximum total bytes of screenshot files kept */
+    private final long maxTotalBytes;
+    
+    /** Screenshots waiting to be written */
+    private final BlockingQueue<Job> queue;
+    
+    /** Content hash to the path that holds (or is about to hold) that content; dropped if the write fails */
+    private final Map<String, Path> written = new ConcurrentHashMap<>();
+    
+    /** Files written by this run, oldest first, for retention */
+    private final Deque<Path> retained = new ArrayDeque<>();
+    
+    /** Bytes held by retained files */
+    private long retainedBytes;
+    
+    /** Writer statistics */
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong deleted = new AtomicLong();
+    
+    /** Background writer thread */
+    private final Thread worker;
+    
+    /**
+     * Creates a writer and starts its background thread.
+     * 
+     * @param directory directory screenshots are written to
+     * @param format png or jpg
+     * @param jpegQuality JPEG quality between 0 and 1
+     * @param queueCapacity maximum screenshots waiting to be written
+     * @param maxFiles maximum number of files kept, 0 for unlimited
+     * @param maxTotalBytes maximum total size of files kept, 0 for unlimited
+     */
+    public ScreenshotWriter(Path directory, String format, float jpegQuality, int queueCapacity,
+                            int maxFiles, long maxTotalBytes) {
+        this.directory = directory;
+        this.format = "jpg".equalsIgnoreCase(format) || "jpeg".equalsIgnoreCase(format) ? "jpg" : "png";
+        this.jpegQuality = jpegQuality;
+        this.maxFiles = maxFiles;
+        this.maxTotalBytes = maxTotalBytes;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.worker = new Thread(this::drain, "screenshot-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+    
+    /**
+     * Gets the shared writer, creating it from the configuration on first use.
+     * 
+     * @return shared writer
+     */
+    public static ScreenshotWriter getInstance() {
+        ScreenshotWriter writer = instance;
+        if (writer == null) {
+            synchronized (ScreenshotWriter.class) {
+                writer = instance;
+                if (writer == null) {
+                    ConfigReader config = ConfigReader.getInstance();
+                    writer = new ScreenshotWriter(
+                        Paths.get(System.getProperty("user.dir"), "screenshots"),
+                        config.getProperty("screenshot.format", "png"),
+                        config.getIntProperty("screenshot.jpeg.quality", 80) / 100f,
+                        config.getIntProperty("screenshot.queue.capacity", 32),
+                        config.getIntProperty("screenshot.max.files", 200),
+                        config.getIntProperty("screenshot.max.total.mb", 200) * 1024L * 1024L);
+                    instance = writer;
+                }
+            }
+        }
+        return writer;
+    }
+    
+    /**
+     * Drains and stops the shared writer if one was created.
+     * 
+     * @param timeoutSeconds maximum time to wait for the queue to drain
+     */
+    public static void shutdown(int timeoutSeconds) {
+        ScreenshotWriter writer = instance;
+        if (writer != null) {
+            writer.close(timeoutSeconds);
+        }
+    }
+    
+    /**
+     * Queues a screenshot for writing. Blocks while the queue is full.
+     * 
+     * @param baseName file name without extension
+     * @param png screenshot bytes as captured (PNG)
+     * @return path the screenshot is (or already was) saved to
+     */
+    public Path submit(String baseName, byte[] png) {
+        submitted.incrementAndGet();
+        Path target = directory.resolve(baseName + "." + format);
+        String hash = sha256(png);
+        Path existing = written.putIfAbsent(hash, target);
+        if (existing != null) {
+            duplicates.incrementAndGet();
+            LOG.info("Screenshot identical to {}, not saved again", existing.getFileName());
+            return existing;
+        }
+        try {
+            queue.put(new Job(target, png, hash));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            written.remove(hash, target);
+            LOG.warn("Interrupted while queueing screenshot {}", target.getFileName());
+        }
+        return target;
+    }
+    
+    /**
+     * Writes every queued screenshot and stops the writer thread.
+     * 
+     * @param timeoutSeconds maximum time to wait for the queue to drain
+     */
+    public void close(int timeoutSeconds) {
+        try {
+            queue.put(POISON);
+            worker.join(TimeUnit.SECONDS.toMillis(timeoutSeconds));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOG.info("Screenshots: submitted={} duplicatesSkipped={} deletedByRetention={}",
+            submitted.get(), duplicates.get(), deleted.get());
+        synchronized (ScreenshotWriter.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
+    }
+    
+    /**
+     * Writer thread loop.
+     */
+    private void drain() {
+        while (true) {
+            Job job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (job == POISON) {
+                return;
+            }
+            try {
+                write(job);
+            } catch (IOException | RuntimeException e) {
+                // Forget the content so the next identical screenshot is written instead of pointing here
+                written.remove(job.hash, job.path);
+                LOG.warn("Failed to save screenshot: {}", e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Encodes and writes one screenshot, then applies retention limits.
+     * 
+     * @param job screenshot to write
+     * @throws IOException if the file cannot be written
+     */
+    private void write(Job job) throws IOException {
+        byte[] data = "jpg".equals(format) ? toJpeg(job.png) : job.png;
+        Files.createDirectories(directory);
+        try (FileChannel channel = FileChannel.open(job.path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        LOG.info("Screenshot saved: {}", job.path);
+        
+        retained.addLast(job.path);
+        retainedBytes += data.length;
+        while ((maxFiles > 0 && retained.size() > maxFiles)
+                || (maxTotalBytes > 0 && retainedBytes > maxTotalBytes && retained.size() > 1)) {
+            Path oldest = retained.pollFirst();
+            long size = Files.exists(oldest) ? Files.size(oldest) : 0;
+            Files.deleteIfExists(oldest);
+            retainedBytes -= size;
+            deleted.incrementAndGet();
+            written.values().remove(oldest);
+        }
+    }
+    
+    /**
+     * Re-encodes a PNG screenshot as JPEG.
+     * 
+     * @param png PNG bytes
+     * @return JPEG bytes, or the PNG bytes if they cannot be decoded
+     * @throws IOException if encoding fails
+     */
+    private byte[] toJpeg(byte[] png) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        if (source == null) {
+            return png;
+        }
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        rgb.createGraphics().drawImage(source, 0, 0, null);
+        
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+        ByteArrayOutputStream out = new ByteArrayOutputStream(png.length / 2);
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+    
+    /**
+     * Hashes screenshot content.
+     * 
+     * @param data screenshot bytes
+     * @return hex SHA-256 digest
+     */
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits test units across CI nodes using recorded durations.
+ * Units with a known duration are placed longest first, each on the node with
+ * the least work so far (LPT bin packing). Units never seen before are then
+ * dealt round-robin, starting with the least loaded node. Ties are broken by
+ * name, so every node computes the same plan from the same history.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class ShardPlanner {
+    
+    /**
+     * Work assigned to one node.
+     */
+    public static final class Shard {
+        
+        private final int index;
+        private final List<String> units = new ArrayList<>();
+        private long estimatedMillis;
+        
+        Shard(int index) {
+            this.index = index;
+        }
+        
+        /** @return zero-based node index */
+        public int getIndex() {
+            return index;
+        }
+        
+        /** @return units assigned to the node */
+        public List<String> getUnits() {
+            return Collections.unmodifiableList(units);
+        }
+        
+        /** @return summed duration of units with a known duration */
+        public long getEstimatedMillis() {
+            return estimatedMillis;
+        }
+    }
+    
+    /** Private constructor to prevent instantiation */
+    private ShardPlanner() {
+        throw new IllegalStateException("Utility class");
+    }
+    
+    /**
+     * Plans the split of units across nodes.
+     * 
+     * @param units test units to distribute
+     * @param durations known duration per unit in milliseconds; missing units are unseen
+     * @param nodes number of nodes
+     * @return one shard per node, indexed by node
+     */
+    public static List<Shard> plan(List<String> units, Map<String, Long> durations, int nodes) {
+        if (nodes < 1) {
+            throw new IllegalArgumentException("Node count must be positive: " + nodes);
+        }
+        List<Shard> shards = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            shards.add(new Shard(i));
+        }
+        
+        List<String> known = new ArrayList<>();
+        List<String> unseen = new ArrayList<>();
+        for (String unit : units) {
+            (durations.containsKey(unit) ? known : unseen).add(unit);
+        }
+        known.sort(Comparator.comparing((String unit) -> durations.get(unit)).reversed()
+            .thenComparing(Comparator.naturalOrder()));
+        Collections.sort(unseen);
+        
+        Comparator<Shard> byLoad = Comparator.comparingLong(Shard::getEstimatedMillis)
+            .thenComparingInt(Shard::getIndex);
+        for (String unit : known) {
+            Shard target = Collections.min(shards, byLoad);
+            target.units.add(unit);
+            target.estimatedMillis += durations.get(unit);
+        }
+        
+        List<Shard> order = new ArrayList<>(shards);
+        order.sort(byLoad);
+        for (int i = 0; i < unseen.size(); i++) {
+            order.get(i % nodes).units.add(unseen.get(i));
+        }
+        return shards;
+    }
+    
+    /**
+     * Ratio of the slowest shard to the average shard, 1.0 being a perfect split.
+     * 
+     * @param shards planned shards
+     * @return imbalance ratio, or 1.0 if nothing has a known duration
+     */
+    public static double imbalance(List<Shard> shards) {
+        long total = 0;
+        long max = 0;
+        for (Shard shard : shards) {
+            total += shard.getEstimatedMillis();
+            max = Math.max(max, shard.getEstimatedMillis());
+        }
+        return total == 0 ? 1.0 : max / ((double) total / shards.size());
+    }
+}
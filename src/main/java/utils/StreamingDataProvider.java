@@ -0,0 +1,264 @@
+package utils;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy row source for TestNG data providers.
+ * Reads CSV (first line is the header) or JSONL files one line at a time and
+ * returns rows as {@code Object[]}, so a provider can return it as
+ * {@code Iterator<Object[]>} without loading the dataset into memory.
+ * Rows can be split across CI nodes: with {@code data.shard.total} N and
+ * {@code data.shard.index} i, a node receives only the rows whose zero-based
+ * position modulo N equals i. Every node reads the same file, so the split is
+ * deterministic.
+ * Rows are only pulled one at a time by a sequential provider; TestNG drains
+ * the iterator of a {@code parallel = true} provider before dispatching any
+ * row, so there the memory bound comes from sharding alone.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class StreamingDataProvider implements Iterator<Object[]>, Closeable {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(StreamingDataProvider.class);
+    
+    /** JSON codec shipped with Selenium */
+    private static final Json JSON = new Json();
+    
+    /** Open reader, null once exhausted */
+    private BufferedReader reader;
+    
+    /** Whether lines are JSON objects rather than CSV */
+    private final boolean jsonLines;
+    
+    /** Column positions (CSV) selected for each row */
+    private final int[] positions;
+    
+    /** Field names (JSONL) selected for each row */
+    private final String[] columns;
+    
+    /** Number of shards the dataset is split into */
+    private final int shardTotal;
+    
+    /** Shard served by this node */
+    private final int shardIndex;
+    
+    /** Zero-based position of the next data row in the file */
+    private long rowNumber;
+    
+    /** Row read ahead for hasNext */
+    private Object[] next;
+    
+    /**
+     * Opens a data file.
+     * 
+     * @param location classpath resource or file path ending in .csv or .jsonl
+     * @param columns names of the columns (CSV header / JSON fields) to pass, in order;
+     *                all CSV columns if empty
+     * @param shardTotal number of shards the dataset is split into
+     * @param shardIndex zero-based shard served by this node
+     */
+    public StreamingDataProvider(String location, String[] columns, int shardTotal, int shardIndex) {
+        if (shardTotal < 1 || shardIndex < 0 || shardIndex >= shardTotal) {
+            throw new IllegalArgumentException("Invalid shard " + shardIndex + " of " + shardTotal);
+        }
+        this.jsonLines = location.endsWith(".jsonl") || location.endsWith(".ndjson");
+        this.columns = columns;
+        this.shardTotal = shardTotal;
+        this.shardIndex = shardIndex;
+        try {
+            this.reader = new BufferedReader(new InputStreamReader(open(location), StandardCharsets.UTF_8));
+            if (jsonLines) {
+                if (columns.length == 0) {
+                    throw new IllegalArgumentException("JSONL data needs the field names to pass: " + location);
+                }
+                this.positions = null;
+            } else {
+                String header = reader.readLine();
+                this.positions = header == null ? new int[0] : selectColumns(parseCsv(header), columns, location);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read data file " + location, e);
+        }
+    }
+    
+    /**
+     * Opens a data file sharded with {@code data.shard.total} and {@code data.shard.index}
+     * from the configuration (overridable with DATA_SHARD_TOTAL / DATA_SHARD_INDEX).
+     * 
+     * @param location classpath resource or file path ending in .csv or .jsonl
+     * @param columns names of the columns to pass, in order
+     * @return lazy row iterator
+     */
+    public static StreamingDataProvider open(String location, String... columns) {
+        ConfigReader config = ConfigReader.getInstance();
+        return new StreamingDataProvider(location, columns,
+            config.getIntProperty("data.shard.total", 1),
+            config.getIntProperty("data.shard.index", 0));
+    }
+    
+    @Override
+    public synchronized boolean hasNext() {
+        if (next == null) {
+            next = readNext();
+        }
+        return next != null;
+    }
+    
+    @Override
+    public synchronized Object[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Object[] row = next;
+        next = null;
+        return row;
+    }
+    
+    @Override
+    public synchronized void close() {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                LOG.warn("Failed to close data file: {}", e.getMessage());
+            }
+            reader = null;
+        }
+    }
+    
+    /**
+     * Reads lines until one belongs to this shard; closes the file at the end.
+     * 
+     * @return next row for this shard, or null when exhausted
+     */
+    private Object[] readNext() {
+        if (reader == null) {
+            return null;
+        }
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (rowNumber++ % shardTotal != shardIndex) {
+                    continue;
+                }
+                return jsonLines ? jsonRow(line) : csvRow(line);
+            }
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Cannot read data file", e);
+        }
+        close();
+        return null;
+    }
+    
+    /**
+     * Picks the selected columns from a CSV line.
+     */
+    private Object[] csvRow(String line) {
+        List<String> fields = parseCsv(line);
+        Object[] row = new Object[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            row[i] = positions[i] < fields.size() ? fields.get(positions[i]) : "";
+        }
+        return row;
+    }
+    
+    /**
+     * Picks the selected fields from a JSON object line.
+     */
+    private Object[] jsonRow(String line) {
+        Map<String, Object> object = JSON.toType(line, Json.MAP_TYPE);
+        Object[] row = new Object[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            Object value = object.get(columns[i]);
+            row[i] = value == null ? "" : String.valueOf(value);
+        }
+        return row;
+    }
+    
+    /**
+     * Resolves column names against the CSV header.
+     */
+    private static int[] selectColumns(List<String> header, String[] columns, String location) {
+        if (columns.length == 0) {
+            int[] all = new int[header.size()];
+            Arrays.setAll(all, i -> i);
+            return all;
+        }
+        int[] selected = new int[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            selected[i] = header.indexOf(columns[i]);
+            if (selected[i] < 0) {
+                throw new IllegalArgumentException("Column '" + columns[i] + "' not found in " + location);
+            }
+        }
+        return selected;
+    }
+    
+    /**
+     * Splits one CSV line; supports double-quoted fields with "" escapes.
+     */
+    private static List<String> parseCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+    
+    /**
+     * Opens a classpath resource, falling back to the file system.
+     */
+    private static InputStream open(String location) throws IOException {
+        InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(location);
+        if (in != null) {
+            return in;
+        }
+        File file = new File(location);
+        if (!file.isAbsolute() && !file.exists()) {
+            file = new File(System.getProperty("user.dir") + "/src/test/resources/" + location);
+        }
+        return new FileInputStream(file);
+    }
+}
@@ -0,0 +1,185 @@
+package utils;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.TypeToken;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Persisted per-test run history, keyed by {@code <class>.<method>}.
+ * Durations and failure rates are kept as exponentially weighted averages so
+ * one unusual run does not dominate, along with how many runs ago the test
+ * last failed. The file is plain JSON and is meant to be cached between
+ * CI runs; every node should read the same copy so shard plans agree.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class TestHistory {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(TestHistory.class);
+    
+    /** JSON codec shipped with Selenium */
+    private static final Json JSON = new Json();
+    
+    /** Weight of the latest run in the weighted averages */
+    private static final double RECENT_WEIGHT = 0.3;
+    
+    /** Type of the persisted map */
+    private static final Type FILE_TYPE = new TypeToken<Map<String, Map<String, Object>>>() { }.getType();
+    
+    /**
+     * History of one test method.
+     */
+    public static final class Record {
+        
+        private long runs;
+        private long averageMillis;
+        private double failureRate;
+        private long runsSinceFailure = -1;
+        
+        /** @return number of recorded runs */
+        public long getRuns() {
+            return runs;
+        }
+        
+        /** @return weighted average duration in milliseconds */
+        public long getAverageMillis() {
+            return averageMillis;
+        }
+        
+        /** @return weighted failure rate between 0 and 1 */
+        public double getFailureRate() {
+            return failureRate;
+        }
+        
+        /** @return runs since the last failure (0 if the last run failed), or -1 if it never failed */
+        public long getRunsSinceFailure() {
+            return runsSinceFailure;
+        }
+        
+        private Map<String, Object> toMap() {
+            Map<String, Object> map = new TreeMap<>();
+            map.put("runs", runs);
+            map.put("averageMillis", averageMillis);
+            map.put("failureRate", failureRate);
+            map.put("runsSinceFailure", runsSinceFailure);
+            return map;
+        }
+        
+        private static Record fromMap(Map<String, Object> map) {
+            Record record = new Record();
+            record.runs = asLong(map.get("runs"));
+            record.averageMillis = asLong(map.get("averageMillis"));
+            Object rate = map.get("failureRate");
+            record.failureRate = rate instanceof Number ? ((Number) rate).doubleValue() : 0.0;
+            record.runsSinceFailure = map.containsKey("runsSinceFailure") ? asLong(map.get("runsSinceFailure")) : -1;
+            return record;
+        }
+    }
+    
+    /** Records by test key, sorted for stable output */
+    private final Map<String, Record> records = new TreeMap<>();
+    
+    /**
+     * Gets the history file configured with {@code history.file}.
+     * 
+     * @return path to the history file
+     */
+    public static Path defaultPath() {
+        return Paths.get(ConfigReader.getInstance().getProperty("history.file", "test-history.json"));
+    }
+    
+    /**
+     * Loads history from a file; a missing or unreadable file gives empty history.
+     * 
+     * @param file history file
+     * @return loaded history
+     */
+    public static TestHistory load(Path file) {
+        TestHistory history = new TestHistory();
+        if (!Files.exists(file)) {
+            return history;
+        }
+        try {
+            Map<String, Map<String, Object>> raw = JSON.toType(
+                Files.readString(file, StandardCharsets.UTF_8), FILE_TYPE);
+            if (raw != null) {
+                raw.forEach((key, value) -> history.records.put(key, Record.fromMap(value)));
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Ignoring unreadable test history {}: {}", file, e.getMessage());
+        }
+        return history;
+    }
+    
+    /**
+     * Writes history to a file, replacing it atomically.
+     * 
+     * @param file history file
+     */
+    public synchronized void save(Path file) {
+        Map<String, Map<String, Object>> raw = new TreeMap<>();
+        records.forEach((key, record) -> raw.put(key, record.toMap()));
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temp = Files.createTempFile(parent, "test-history", ".tmp");
+            Files.writeString(temp, JSON.toJson(raw), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.warn("Failed to save test history {}: {}", file, e.getMessage());
+        }
+    }
+    
+    /**
+     * Records one run of a test.
+     * 
+     * @param key test key ({@code <class>.<method>})
+     * @param durationMillis time spent in the test, summed over data provider invocations
+     * @param failed whether any invocation failed
+     */
+    public synchronized void recordRun(String key, long durationMillis, boolean failed) {
+        Record record = records.computeIfAbsent(key, k -> new Record());
+        double outcome = failed ? 1.0 : 0.0;
+        if (record.runs == 0) {
+            record.averageMillis = durationMillis;
+            record.failureRate = outcome;
+        } else {
+            record.averageMillis = Math.round(RECENT_WEIGHT * durationMillis + (1 - RECENT_WEIGHT) * record.averageMillis);
+            record.failureRate = RECENT_WEIGHT * outcome + (1 - RECENT_WEIGHT) * record.failureRate;
+        }
+        if (failed) {
+            record.runsSinceFailure = 0;
+        } else if (record.runsSinceFailure >= 0) {
+            record.runsSinceFailure++;
+        }
+        record.runs++;
+    }
+    
+    /**
+     * Gets the history of a test.
+     * 
+     * @param key test key ({@code <class>.<method>})
+     * @return record, or null if the test has never been recorded
+     */
+    public synchronized Record get(String key) {
+        return records.get(key);
+    }
+    
+    /**
+     * Converts a JSON number to long.
+     */
+    private static long asLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+}
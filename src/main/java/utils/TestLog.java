@@ -0,0 +1,409 @@
+package utils;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.FormattingTuple;
+import org.slf4j.helpers.MessageFormatter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured, asynchronous logging on top of SLF4J.
+ * Logging calls format the message and append it to a lock-free queue. While a
+ * test runs on the calling thread (between {@link #startTest(String)} and
+ * {@link #endTest(String)}), its events are buffered and, when the test ends,
+ * handed to a background thread that writes them as one contiguous block to
+ * the console (through SLF4J) and as one JSON line per event to
+ * {@code target/test-logs.jsonl} (or {@code -Dtest.log.file}). Events outside
+ * a test go straight to the background thread. Each event is tagged with the
+ * test name, thread and browser session id; messages use SLF4J {@code {}}
+ * placeholders and are formatted on the calling thread, so arguments that
+ * change afterwards are logged as they were. Once {@link #shutdown(int)} has
+ * stopped the background thread, events are written by the logging thread.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public final class TestLog {
+    
+    /** Logger the per-test blocks are written to */
+    private static final Logger BLOCK_LOGGER = LoggerFactory.getLogger("tests");
+    
+    /** Time format in console blocks */
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+        .withZone(ZoneId.systemDefault());
+    
+    /** JSON codec shipped with Selenium */
+    private static final Json JSON = new Json();
+    
+    /** Test running on each thread, null outside tests */
+    private static final ThreadLocal<TestContext> CONTEXT = new ThreadLocal<>();
+    
+    /** Events logged outside tests */
+    private static final Queue<Event> LOOSE_EVENTS = new ConcurrentLinkedQueue<>();
+    
+    /** Finished tests waiting to be written */
+    private static final Queue<TestContext> FINISHED = new ConcurrentLinkedQueue<>();
+    
+    /** Background writer */
+    private static final Thread WRITER = new Thread(TestLog::drain, "test-log-writer");
+    
+    /** Set when the writer should drain and stop */
+    private static volatile boolean stopping;
+    
+    /** Set once the writer has stopped; later events are written by the thread that logs them */
+    private static volatile boolean stopped;
+    
+    static {
+        WRITER.setDaemon(true);
+        WRITER.start();
+    }
+    
+    /** Logger name events are attributed to */
+    private final String name;
+    
+    /**
+     * One log call, formatted when it is made.
+     */
+    private static final class Event {
+        private final long timestamp = System.currentTimeMillis();
+        private final Level level;
+        private final String logger;
+        private final String thread = Thread.currentThread().getName();
+        private final String message;
+        
+        Event(Level level, String logger, String format, Object[] args) {
+            this.level = level;
+            this.logger = logger;
+            FormattingTuple tuple = MessageFormatter.arrayFormat(format, args);
+            this.message = tuple.getThrowable() == null
+                ? tuple.getMessage()
+                : tuple.getMessage() + " - " + tuple.getThrowable();
+        }
+        
+        String message() {
+            return message;
+        }
+    }
+    
+    /**
+     * Test running on one thread.
+     */
+    private static final class TestContext {
+        private final String test;
+        private final String thread = Thread.currentThread().getName();
+        private final Queue<Event> events = new ConcurrentLinkedQueue<>();
+        private volatile String session;
+        private volatile String status;
+        
+        TestContext(String test) {
+            this.test = test;
+        }
+    }
+    
+    private TestLog(String name) {
+        this.name = name;
+    }
+    
+    /**
+     * Creates a logger for a class.
+     * 
+     * @param type class that logs
+     * @return logger
+     */
+    public static TestLog getLogger(Class<?> type) {
+        return new TestLog(type.getSimpleName());
+    }
+    
+    /**
+     * Starts buffering the calling thread's events for a test.
+     * 
+     * @param testName test name, e.g. {@code LoginTest.testValidLogin}
+     */
+    public static void startTest(String testName) {
+        TestContext previous = CONTEXT.get();
+        if (previous != null) {
+            endTest("INCOMPLETE");
+        }
+        CONTEXT.set(new TestContext(testName));
+    }
+    
+    /**
+     * Tags the calling thread's test with its browser session.
+     * 
+     * @param sessionId WebDriver session id
+     */
+    public static void tagSession(String sessionId) {
+        TestContext context = CONTEXT.get();
+        if (context != null) {
+            context.session = sessionId;
+        }
+    }
+    
+    /**
+     * Ends the calling thread's test and queues its events to be written as one block.
+     * 
+     * @param status test outcome, e.g. PASSED
+     */
+    public static void endTest(String status) {
+        TestContext context = CONTEXT.get();
+        if (context == null) {
+            return;
+        }
+        CONTEXT.remove();
+        context.status = status;
+        FINISHED.add(context);
+        wakeWriter();
+    }
+    
+    /**
+     * Writes everything still queued and stops the background writer.
+     * 
+     * @param timeoutSeconds maximum time to wait
+     */
+    public static void shutdown(int timeoutSeconds) {
+        stopping = true;
+        LockSupport.unpark(WRITER);
+        try {
+            WRITER.join(TimeUnit.SECONDS.toMillis(timeoutSeconds));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!WRITER.isAlive()) {
+            stopped = true;
+            writeRemaining();
+        }
+    }
+    
+    /**
+     * Logs a debug message.
+     * 
+     * @param format message with SLF4J {@code {}} placeholders
+     * @param args placeholder values
+     */
+    public void debug(String format, Object... args) {
+        log(Level.DEBUG, format, args);
+    }
+    
+    /**
+     * Logs an info message.
+     * 
+     * @param format message with SLF4J {@code {}} placeholders
+     * @param args placeholder values
+     */
+    public void info(String format, Object... args) {
+        log(Level.INFO, format, args);
+    }
+    
+    /**
+     * Logs a warning message.
+     * 
+     * @param format message with SLF4J {@code {}} placeholders
+     * @param args placeholder values
+     */
+    public void warn(String format, Object... args) {
+        log(Level.WARN, format, args);
+    }
+    
+    /**
+     * Logs an error message.
+     * 
+     * @param format message with SLF4J {@code {}} placeholders
+     * @param args placeholder values
+     */
+    public void error(String format, Object... args) {
+        log(Level.ERROR, format, args);
+    }
+    
+    /**
+     * Formats and queues one event; no I/O happens on the calling thread while the writer runs.
+     */
+    private void log(Level level, String format, Object[] args) {
+        TestContext context = CONTEXT.get();
+        Event event = new Event(level, name, format, args);
+        if (context != null) {
+            context.events.add(event);
+        } else {
+            LOOSE_EVENTS.add(event);
+            wakeWriter();
+        }
+    }
+    
+    /**
+     * Hands queued events to the background writer, or writes them here once it has stopped.
+     */
+    private static void wakeWriter() {
+        if (stopped) {
+            writeRemaining();
+        } else {
+            LockSupport.unpark(WRITER);
+        }
+    }
+    
+    /**
+     * Background loop: writes loose events as they come and finished tests as blocks.
+     */
+    private static void drain() {
+        Path file = logFile();
+        BufferedWriter jsonl = openJsonl(file);
+        while (true) {
+            boolean finalPass = stopping;
+            writeQueued(jsonl);
+            if (finalPass) {
+                break;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        close(jsonl, file);
+    }
+    
+    /**
+     * Writes whatever is queued on the calling thread, after the background writer has stopped.
+     */
+    private static synchronized void writeRemaining() {
+        if (LOOSE_EVENTS.isEmpty() && FINISHED.isEmpty()) {
+            return;
+        }
+        Path file = logFile();
+        BufferedWriter jsonl = openJsonl(file);
+        writeQueued(jsonl);
+        close(jsonl, file);
+    }
+    
+    /**
+     * Writes queued loose events and finished test blocks.
+     */
+    private static void writeQueued(BufferedWriter jsonl) {
+        Event event;
+        while ((event = LOOSE_EVENTS.poll()) != null) {
+            writeLoose(event);
+            writeJson(jsonl, event, null);
+        }
+        TestContext context;
+        while ((context = FINISHED.poll()) != null) {
+            writeBlock(context);
+            for (Event e : context.events) {
+                writeJson(jsonl, e, context);
+            }
+        }
+        flush(jsonl);
+    }
+    
+    /**
+     * Resolves the JSON lines file, {@code -Dtest.log.file} or target/test-logs.jsonl.
+     */
+    private static Path logFile() {
+        return Paths.get(System.getProperty("test.log.file", "target/test-logs.jsonl"));
+    }
+    
+    /**
+     * Writes one event logged outside a test through its own SLF4J logger.
+     */
+    private static void writeLoose(Event event) {
+        LoggerFactory.getLogger(event.logger).atLevel(event.level).log(event.message());
+    }
+    
+    /**
+     * Writes a finished test's events as one console block.
+     */
+    private static void writeBlock(TestContext context) {
+        List<Event> shown = new ArrayList<>();
+        for (Event event : context.events) {
+            if (LoggerFactory.getLogger(event.logger).isEnabledForLevel(event.level)) {
+                shown.add(event);
+            }
+        }
+        StringBuilder block = new StringBuilder()
+            .append("==== ").append(context.test).append(" [").append(context.status).append("]")
+            .append(" thread=").append(context.thread)
+            .append(" session=").append(context.session);
+        for (Event event : shown) {
+            block.append(System.lineSeparator()).append("  ")
+                .append(TIME.format(Instant.ofEpochMilli(event.timestamp))).append(' ')
+                .append(String.format("%-5s", event.level)).append(' ')
+                .append(event.logger).append(" - ").append(event.message());
+        }
+        BLOCK_LOGGER.info(block.toString());
+    }
+    
+    /**
+     * Appends one event as a JSON line.
+     */
+    private static void writeJson(BufferedWriter jsonl, Event event, TestContext context) {
+        if (jsonl == null) {
+            return;
+        }
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("timestamp", event.timestamp);
+        line.put("level", event.level.toString());
+        line.put("logger", event.logger);
+        line.put("test", context == null ? null : context.test);
+        line.put("status", context == null ? null : context.status);
+        line.put("thread", event.thread);
+        line.put("session", context == null ? null : context.session);
+        line.put("message", event.message());
+        try {
+            StringBuilder json = new StringBuilder();
+            try (JsonOutput out = JSON.newOutput(json)) {
+                out.setPrettyPrint(false).write(line);
+            }
+            jsonl.write(json.toString());
+            jsonl.newLine();
+        } catch (IOException e) {
+            BLOCK_LOGGER.warn("Failed to write test log: {}", e.getMessage());
+        }
+    }
+    
+    private static BufferedWriter openJsonl(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            return Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            BLOCK_LOGGER.warn("Test log file {} not available, console only: {}", file, e.getMessage());
+            return null;
+        }
+    }
+    
+    private static void close(BufferedWriter jsonl, Path file) {
+        if (jsonl != null) {
+            try {
+                jsonl.close();
+            } catch (IOException e) {
+                BLOCK_LOGGER.warn("Failed to close test log {}: {}", file, e.getMessage());
+            }
+        }
+    }
+    
+    private static void flush(BufferedWriter jsonl) {
+        if (jsonl != null) {
+            try {
+                jsonl.flush();
+            } catch (IOException e) {
+                BLOCK_LOGGER.warn("Failed to flush test log: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package utils;
+
+import org.openqa.selenium.By;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * In-page condition that can be combined with others into a single wait.
+ * Each condition is a JavaScript predicate plus its arguments; {@link WaitHelper#waitForAny}
+ * and {@link WaitHelper#waitForAll} evaluate a whole set of them in one script per check,
+ * so waiting on several outcomes costs no more round trips than waiting on one.
+ * Conditions are immutable and can be kept in constants.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public final class WaitCondition {
+    
+    /** Human-readable description, used in timeout messages */
+    private final String description;
+    
+    /** JavaScript function body returning truthy when the condition holds; receives {@code args} */
+    private final String predicate;
+    
+    /** Arguments passed to the predicate */
+    private final List<Object> args;
+    
+    /**
+     * Creates a condition from a predicate and its arguments.
+     * 
+     * @param description human-readable description
+     * @param predicate JavaScript function body; may use the {@code locate} and {@code visible} helpers
+     * @param args arguments passed to the predicate as {@code args}
+     */
+    private WaitCondition(String description, String predicate, Object... args) {
+        this.description = description;
+        this.predicate = predicate;
+        this.args = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(args)));
+    }
+    
+    /**
+     * Condition: current URL contains text.
+     * 
+     * @param fragment expected URL fragment
+     * @return condition
+     */
+    public static WaitCondition urlContains(String fragment) {
+        return new WaitCondition("URL contains '" + fragment + "'",
+            "return window.location.href.indexOf(args[0]) !== -1;", fragment);
+    }
+    
+    /**
+     * Condition: page title contains text.
+     * 
+     * @param title expected title text
+     * @return condition
+     */
+    public static WaitCondition titleContains(String title) {
+        return new WaitCondition("title contains '" + title + "'",
+            "return document.title.indexOf(args[0]) !== -1;", title);
+    }
+    
+    /**
+     * Condition: element matching a locator is present in the DOM.
+     * 
+     * @param locator locator of the element
+     * @return condition
+     */
+    public static WaitCondition present(By locator) {
+        String[] pageLocator = requirePageLocator(locator);
+        return new WaitCondition(locator + " present",
+            "return locate(args[0], args[1]) !== null;", pageLocator[0], pageLocator[1]);
+    }
+    
+    /**
+     * Condition: element matching a locator is visible.
+     * 
+     * @param locator locator of the element
+     * @return condition
+     */
+    public static WaitCondition visible(By locator) {
+        String[] pageLocator = requirePageLocator(locator);
+        return new WaitCondition(locator + " visible",
+            "return visible(locate(args[0], args[1]));", pageLocator[0], pageLocator[1]);
+    }
+    
+    /**
+     * Condition: text of element matching a locator contains text.
+     * 
+     * @param locator locator of the element
+     * @param text expected text
+     * @return condition
+     */
+    public static WaitCondition textPresent(By locator, String text) {
+        String[] pageLocator = requirePageLocator(locator);
+        return new WaitCondition(locator + " contains '" + text + "'",
+            "var el = locate(args[0], args[1]);"
+            + "return el !== null && (el.innerText || el.textContent || '').indexOf(args[2]) !== -1;",
+            pageLocator[0], pageLocator[1], text);
+    }
+    
+    /**
+     * Condition defined by a custom JavaScript predicate.
+     * 
+     * @param description human-readable description
+     * @param predicate JavaScript function body returning truthy when satisfied; receives {@code args}
+     * @param args arguments passed to the predicate
+     * @return condition
+     */
+    public static WaitCondition script(String description, String predicate, Object... args) {
+        return new WaitCondition(description, predicate, args);
+    }
+    
+    /**
+     * Gets the condition description.
+     * 
+     * @return description
+     */
+    public String getDescription() {
+        return description;
+    }
+    
+    /**
+     * Gets the JavaScript predicate body.
+     * 
+     * @return predicate body
+     */
+    String getPredicate() {
+        return predicate;
+    }
+    
+    /**
+     * Gets the predicate arguments.
+     * 
+     * @return immutable argument list
+     */
+    List<Object> getArgs() {
+        return args;
+    }
+    
+    @Override
+    public String toString() {
+        return description;
+    }
+    
+    /**
+     * Translates a locator for in-page use, rejecting locators without an equivalent.
+     * 
+     * @param locator Selenium locator
+     * @return {kind, value} pair
+     */
+    private static String[] requirePageLocator(By locator) {
+        String[] pageLocator = WaitEngine.toPageLocator(locator);
+        if (pageLocator == null) {
+            throw new IllegalArgumentException("Locator cannot be evaluated in the page: " + locator);
+        }
+        return pageLocator;
+    }
+}
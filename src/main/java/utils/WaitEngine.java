@@ -0,0 +1,306 @@
+package utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
+
+/**
+ * Event-driven wait engine used by {@link WaitHelper}.
+ * Conditions are resolved inside the page: an async script evaluates the
+ * condition immediately and then re-evaluates it from a MutationObserver, so
+ * the wait completes as soon as the DOM changes instead of on the next poll.
+ * When the page navigates mid-wait the in-page wait is re-armed on the new
+ * document; when scripts cannot run at all the engine falls back to Java-side
+ * polling with adaptive backoff.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class WaitEngine {
+    
+    /** First back-off interval in milliseconds */
+    private static final long INITIAL_POLL_MILLIS = 25;
+    
+    /** Largest back-off interval in milliseconds */
+    private static final long MAX_POLL_MILLIS = 500;
+    
+    /** Extra script timeout so the in-page timer always fires first */
+    private static final Duration SCRIPT_TIMEOUT_MARGIN = Duration.ofSeconds(2);
+    
+    /** Shared JavaScript helpers available to every in-page predicate */
+    private static final String HELPERS =
+        "function locate(kind, value) {"
+        + "  if (kind === 'xpath') {"
+        + "    return document.evaluate(value, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+        + "  }"
+        + "  return document.querySelector(value);"
+        + "}"
+        + "function visible(el) {"
+        + "  if (!el || !el.isConnected) { return false; }"
+        + "  var style = window.getComputedStyle(el);"
+        + "  if (style.visibility === 'hidden' || style.display === 'none' || parseFloat(style.opacity) === 0) { return false; }"
+        + "  var rect = el.getBoundingClientRect();"
+        + "  return rect.width > 0 && rect.height > 0;"
+        + "}";
+    
+    /** Async script wrapper: evaluates the predicate now, on every DOM mutation, and on a slow heartbeat */
+    private static final String ASYNC_PREFIX =
+        "var done = arguments[arguments.length - 1];"
+        + "var timeoutMs = arguments[0];"
+        + "var args = Array.prototype.slice.call(arguments, 1, arguments.length - 1);"
+        + HELPERS;
+    
+    private static final String ASYNC_SUFFIX =
+        "var finished = false, observer = null, timer = null, heartbeat = null;"
+        + "function finish(value) {"
+        + "  if (finished) { return; }"
+        + "  finished = true;"
+        + "  if (observer) { observer.disconnect(); }"
+        + "  clearTimeout(timer); clearInterval(heartbeat);"
+        + "  done(value);"
+        + "}"
+        + "function evaluate() {"
+        + "  try { var result = predicate(args); if (result) { finish(result); } } catch (e) { }"
+        + "}"
+        + "evaluate();"
+        + "if (!finished) {"
+        + "  observer = new MutationObserver(evaluate);"
+        + "  observer.observe(document, {subtree: true, childList: true, attributes: true, characterData: true});"
+        + "  heartbeat = setInterval(evaluate, 250);"
+        + "  timer = setTimeout(function () { finish(false); }, timeoutMs);"
+        + "}";
+    
+    /** Script timeout already applied to each driver, to avoid a round trip per wait */
+    private static final Map<WebDriver, Duration> SCRIPT_TIMEOUTS =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    
+    /** WebDriver instance the waits run against */
+    private final WebDriver driver;
+    
+    /**
+     * Creates a wait engine for a driver.
+     * 
+     * @param driver WebDriver instance to wait on
+     */
+    public WaitEngine(WebDriver driver) {
+        this.driver = driver;
+    }
+    
+    /**
+     * Waits for a condition, resolving it inside the page when possible.
+     * 
+     * @param predicateBody JavaScript function body returning truthy when the condition holds; receives {@code args}
+     * @param args script arguments passed to the predicate as {@code args}
+     * @param fallback Java-side condition used when the in-page wait cannot run
+     * @param timeout maximum time to wait
+     * @param description condition description for the timeout message
+     * @return the truthy value the predicate returned, or the fallback's value
+     * @throws TimeoutException if the condition does not hold within the timeout
+     */
+    public Object await(String predicateBody, Object[] args, Function<WebDriver, ?> fallback,
+                      Duration timeout, String description) {
+        if (!(driver instanceof JavascriptExecutor)) {
+            return poll(fallback, timeout, description);
+        }
+        
+        long deadline = System.nanoTime() + timeout.toNanos();
+        String script = ASYNC_PREFIX + "function predicate(args) {" + predicateBody + "}" + ASYNC_SUFFIX;
+        long backoff = INITIAL_POLL_MILLIS;
+        
+        while (true) {
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                throw new TimeoutException("Timed out after " + timeout.toMillis() + "ms waiting for " + description);
+            }
+            try {
+                Object result = runInPage(script, remainingMillis, args);
+                if (result != null && !Boolean.FALSE.equals(result)) {
+                    return result;
+                }
+                throw new TimeoutException("Timed out after " + timeout.toMillis() + "ms waiting for " + description);
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                // Element argument not attached yet - back off and retry
+            } catch (TimeoutException e) {
+                throw e;
+            } catch (WebDriverException e) {
+                // Document unloaded mid-wait (navigation) or script blocked - check once from Java, then re-arm
+                Object value = checkOnce(fallback);
+                if (value != null) {
+                    return value;
+                }
+            }
+            sleep(Math.min(backoff, Math.max(1, (deadline - System.nanoTime()) / 1_000_000)));
+            backoff = Math.min(backoff * 2, MAX_POLL_MILLIS);
+        }
+    }
+    
+    /**
+     * Polls a Java-side condition with adaptive backoff.
+     * Starts with short intervals so fast conditions resolve quickly and backs off
+     * to limit WebDriver round trips on slow ones.
+     * 
+     * @param condition returns a non-null, non-false value when satisfied
+     * @param timeout maximum time to wait
+     * @param description condition description for the timeout message
+     * @param <T> condition result type
+     * @return the condition's result
+     * @throws TimeoutException if the condition does not hold within the timeout
+     */
+    public <T> T poll(Function<WebDriver, T> condition, Duration timeout, String description) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long backoff = INITIAL_POLL_MILLIS;
+        while (true) {
+            try {
+                T value = condition.apply(driver);
+                if (value != null && !Boolean.FALSE.equals(value)) {
+                    return value;
+                }
+            } catch (NotFoundException | StaleElementReferenceException e) {
+                // Not there yet - keep polling
+            }
+            long remainingMillis = (deadline - System.nanoTime()) / 1_000_000;
+            if (remainingMillis <= 0) {
+                throw new TimeoutException("Timed out after " + timeout.toMillis() + "ms waiting for " + description);
+            }
+            sleep(Math.min(backoff, remainingMillis));
+            backoff = Math.min(backoff * 2, MAX_POLL_MILLIS);
+        }
+    }
+    
+    /**
+     * Translates a locator into arguments for the in-page {@code locate(kind, value)} helper.
+     * 
+     * @param locator Selenium locator
+     * @return {kind, value} pair, or null when the locator has no in-page equivalent
+     */
+    public static String[] toPageLocator(By locator) {
+        String text = locator.toString();
+        int separator = text.indexOf(": ");
+        if (separator < 0) {
+            return null;
+        }
+        String strategy = text.substring(0, separator);
+        String value = text.substring(separator + 2);
+        switch (strategy) {
+            case "By.cssSelector":
+                return new String[] {"css", value};
+            case "By.xpath":
+                return new String[] {"xpath", value};
+            case "By.id":
+                return new String[] {"css", "[id=\"" + escapeAttribute(value) + "\"]"};
+            case "By.name":
+                return new String[] {"css", "[name=\"" + escapeAttribute(value) + "\"]"};
+            case "By.className":
+                return new String[] {"css", "[class~=\"" + escapeAttribute(value) + "\"]"};
+            case "By.tagName":
+                return new String[] {"css", value};
+            case "By.linkText":
+                return new String[] {"xpath", "//a[normalize-space(.)=" + xpathLiteral(value) + "]"};
+            case "By.partialLinkText":
+                return new String[] {"xpath", "//a[contains(., " + xpathLiteral(value) + ")]"};
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * Runs the async wait script, raising the driver's script timeout if needed.
+     * 
+     * @param script full async script
+     * @param timeoutMillis in-page timeout
+     * @param args predicate arguments
+     * @return the predicate's result, or false on in-page timeout
+     */
+    private Object runInPage(String script, long timeoutMillis, Object[] args) {
+        Duration required = Duration.ofMillis(timeoutMillis).plus(SCRIPT_TIMEOUT_MARGIN);
+        Duration applied = SCRIPT_TIMEOUTS.get(driver);
+        if (applied == null || applied.compareTo(required) < 0) {
+            driver.manage().timeouts().scriptTimeout(required);
+            SCRIPT_TIMEOUTS.put(driver, required);
+        }
+        Object[] scriptArgs = new Object[args.length + 1];
+        scriptArgs[0] = timeoutMillis;
+        System.arraycopy(args, 0, scriptArgs, 1, args.length);
+        return ((JavascriptExecutor) driver).executeAsyncScript(script, scriptArgs);
+    }
+    
+    /**
+     * Evaluates an in-page predicate once with a synchronous script.
+     * Used as the one-round-trip fallback for predicates spanning several conditions.
+     * 
+     * @param predicateBody JavaScript function body; receives {@code args}
+     * @param args script arguments passed to the predicate as {@code args}
+     * @return the predicate's result
+     */
+    public Object evaluate(String predicateBody, Object... args) {
+        String script = HELPERS
+            + "var args = Array.prototype.slice.call(arguments);"
+            + "return (function (args) {" + predicateBody + "})(args);";
+        return ((JavascriptExecutor) driver).executeScript(script, args);
+    }
+    
+    /**
+     * Evaluates a Java-side condition once, treating missing elements as unsatisfied.
+     * 
+     * @param condition condition to check
+     * @return the condition's value if it holds, otherwise null
+     */
+    private Object checkOnce(Function<WebDriver, ?> condition) {
+        try {
+            Object value = condition.apply(driver);
+            return value != null && !Boolean.FALSE.equals(value) ? value : null;
+        } catch (WebDriverException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * Escapes a value for use inside a double-quoted CSS attribute selector.
+     * 
+     * @param value raw value
+     * @return escaped value
+     */
+    static String escapeAttribute(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+    
+    /**
+     * Builds an XPath string literal that may contain either quote character.
+     * 
+     * @param value raw value
+     * @return XPath literal expression
+     */
+    static String xpathLiteral(String value) {
+        if (!value.contains("'")) {
+            return "'" + value + "'";
+        }
+        if (!value.contains("\"")) {
+            return "\"" + value + "\"";
+        }
+        return "concat('" + value.replace("'", "', \"'\", '") + "')";
+    }
+    
+    /**
+     * Sleeps between polls, preserving the interrupt flag.
+     * 
+     * @param millis time to sleep
+     */
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting", e);
+        }
+    }
+}
@@ -1,36 +1,109 @@
 package utils;
 
+import org.openqa.selenium.By;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.pagefactory.Annotations;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.lang.reflect.Field;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * Wait utility class for handling WebDriver synchronization.
  * Provides reusable explicit wait methods to handle dynamic web elements.
  * Improves test reliability by properly synchronizing with page loads and element states.
+ * Waits are resolved inside the page by {@link WaitEngine} and complete as soon as
+ * the DOM changes, falling back to adaptive polling when scripts cannot run.
  * 
  * @author Carolina Steadham
  * @version 1.0
  */
 public class WaitHelper {
     
+    /** In-page predicate: element argument is visible */
+    private static final String ELEMENT_VISIBLE = "return visible(args[0]);";
+    
+    /** In-page predicate: element argument is visible and enabled */
+    private static final String ELEMENT_CLICKABLE = "return visible(args[0]) && !args[0].disabled;";
+    
+    /** In-page predicate: element located by (kind, value) is visible */
+    private static final String LOCATOR_VISIBLE = "return visible(locate(args[0], args[1]));";
+    
+    /** In-page predicate: document title contains text */
+    private static final String TITLE_CONTAINS = "return document.title.indexOf(args[0]) !== -1;";
+    
+    /** In-page predicate: element argument's text contains text */
+    private static final String TEXT_PRESENT =
+        "return args[0].isConnected && (args[0].innerText || args[0].textContent || '').indexOf(args[1]) !== -1;";
+    
+    /** In-page predicate: document parsed and every (kind, value) pair in args[0] located */
+    private static final String ELEMENTS_PRESENT =
+        "if (document.readyState === 'loading') { return false; }"
+        + "var locators = args[0];"
+        + "for (var i = 0; i < locators.length; i++) {"
+        + "  if (!locate(locators[i][0], locators[i][1])) { return false; }"
+        + "}"
+        + "return true;";
+    
+    /** In-page predicate: document parsed */
+    private static final String DOM_PARSED = "return document.readyState !== 'loading';";
+    
+    /** Readiness checks per page class, built once from annotations */
+    private static final Map<Class<?>, PageReadiness> READINESS = new ConcurrentHashMap<>();
+    
+    /**
+     * Readiness check of one page class.
+     */
+    private static final class PageReadiness {
+        
+        /** In-page predicate */
+        private final String predicate;
+        
+        /** Predicate arguments */
+        private final Object[] args;
+        
+        /** Locators that have no in-page equivalent, checked from Java */
+        private final List<By> javaLocators;
+        
+        /** Every required locator, for checks through the healing driver; empty for {@link ReadyWhen} pages */
+        private final List<By> requiredLocators;
+        
+        PageReadiness(String predicate, Object[] args, List<By> javaLocators, List<By> requiredLocators) {
+            this.predicate = predicate;
+            this.args = args;
+            this.javaLocators = javaLocators;
+            this.requiredLocators = requiredLocators;
+        }
+    }
+    
     /** WebDriver instance for browser control */
     private final WebDriver driver;
     
-    /** WebDriverWait instance with default 10 second timeout */
-    private final WebDriverWait wait;
+    /** Event-driven wait engine */
+    private final WaitEngine engine;
+    
+    /** Default wait timeout */
+    private final Duration timeout;
     
     /**
-     * Constructor that initializes WaitHelper with default timeout.
+     * Constructor that initializes WaitHelper with the configured explicit wait.
      * 
      * @param driver WebDriver instance to apply waits to
      */
     public WaitHelper(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
+        this.engine = new WaitEngine(driver);
+        this.timeout = ConfigReader.getInstance().getExplicitWait();
     }
     
     /**
@@ -39,7 +112,17 @@ public class WaitHelper {
      * @param element WebElement to wait for
      */
     public void waitForElementVisible(WebElement element) {
-        wait.until(ExpectedConditions.visibilityOf(element));
+        waitForElement(element, timeout);
+    }
+    
+    /**
+     * Waits for the element matching a locator to become visible.
+     * The element does not need to exist yet when the wait starts.
+     * 
+     * @param locator locator of the element to wait for
+     */
+    public void waitForElementVisible(By locator) {
+        waitForElementVisible(locator, timeout);
     }
     
     /**
@@ -48,7 +131,8 @@ public class WaitHelper {
      * @param element WebElement to wait for
      */
     public void waitForElementClickable(WebElement element) {
-        wait.until(ExpectedConditions.elementToBeClickable(element));
+        engine.await(ELEMENT_CLICKABLE, new Object[] {element},
+            ExpectedConditions.elementToBeClickable(element), timeout, "element to be clickable");
     }
     
     /**
@@ -57,7 +141,71 @@ public class WaitHelper {
      * @param title expected title text
      */
     public void waitForTitle(String title) {
-        wait.until(ExpectedConditions.titleContains(title));
+        engine.await(TITLE_CONTAINS, new Object[] {title},
+            ExpectedConditions.titleContains(title), timeout, "title to contain '" + title + "'");
+    }
+    
+    /**
+     * Waits for element text to contain specific text.
+     * 
+     * @param element WebElement whose text to check
+     * @param text expected text
+     */
+    public void waitForText(WebElement element, String text) {
+        engine.await(TEXT_PRESENT, new Object[] {element, text},
+            ExpectedConditions.textToBePresentInElement(element, text), timeout, "text '" + text + "'");
+    }
+    
+    /**
+     * Waits until any of the given conditions holds.
+     * All conditions are evaluated together in one script execution per check.
+     * 
+     * @param conditions conditions to wait for
+     * @return the first condition (in argument order) that was satisfied
+     */
+    public WaitCondition waitForAny(WaitCondition... conditions) {
+        List<?> fired = awaitComposite(conditions, true);
+        return conditions[((Number) fired.get(0)).intValue()];
+    }
+    
+    /**
+     * Waits until all of the given conditions hold at the same time.
+     * All conditions are evaluated together in one script execution per check.
+     * 
+     * @param conditions conditions to wait for
+     */
+    public void waitForAll(WaitCondition... conditions) {
+        awaitComposite(conditions, false);
+    }
+    
+    /**
+     * Waits until a page object is ready to be used.
+     * With an eager or none page load strategy navigation returns before the full
+     * load event, so pages wait only for what they need: the in-page
+     * {@link ReadyWhen} predicate if the class declares one, otherwise the presence
+     * of every {@code @FindBy} field not marked {@link OptionalElement}.
+     * In-page checks see the raw locators and bypass Healenium, so while healing is
+     * enabled the fields are instead resolved through the healing driver once the
+     * document is parsed; a broken locator is healed rather than waited out.
+     * 
+     * @param page page object to wait for
+     */
+    public void waitForPageReady(Object page) {
+        PageReadiness readiness = READINESS.computeIfAbsent(page.getClass(), WaitHelper::buildReadiness);
+        String description = page.getClass().getSimpleName() + " to be ready";
+        if (!readiness.requiredLocators.isEmpty() && HealeniumConfig.isHealingEnabled()) {
+            engine.await(DOM_PARSED, new Object[0], d -> engine.evaluate(DOM_PARSED), timeout, description);
+            engine.poll(d -> allFound(readiness.requiredLocators), timeout, description);
+            return;
+        }
+        Function<WebDriver, Object> fallback = d -> {
+            Object inPage = engine.evaluate(readiness.predicate, readiness.args);
+            return Boolean.TRUE.equals(inPage) && allPresent(readiness.javaLocators) ? Boolean.TRUE : null;
+        };
+        engine.await(readiness.predicate, readiness.args, fallback, timeout, description);
+        if (!readiness.javaLocators.isEmpty()) {
+            engine.poll(d -> allPresent(readiness.javaLocators), timeout, description);
+        }
     }
     
     /**
@@ -67,8 +215,23 @@ public class WaitHelper {
      * @param timeoutInSeconds custom wait timeout in seconds
      */
     public void waitForElement(WebElement element, int timeoutInSeconds) {
-        WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-        customWait.until(ExpectedConditions.visibilityOf(element));
+        waitForElement(element, Duration.ofSeconds(timeoutInSeconds));
+    }
+    
+    /**
+     * Checks whether the element matching a locator becomes visible within a timeout.
+     * 
+     * @param locator locator of the element to wait for
+     * @param timeoutInSeconds wait timeout in seconds
+     * @return true if the element became visible, false on timeout
+     */
+    public boolean isElementVisibleWithin(By locator, int timeoutInSeconds) {
+        try {
+            waitForElementVisible(locator, Duration.ofSeconds(timeoutInSeconds));
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
     }
     
     /**
@@ -79,4 +242,124 @@ public class WaitHelper {
     public void setImplicitWait(int timeoutInSeconds) {
         driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(timeoutInSeconds));
     }
+    
+    /**
+     * Builds the readiness check of a page class from its annotations.
+     * 
+     * @param pageClass page object class
+     * @return readiness check
+     */
+    private static PageReadiness buildReadiness(Class<?> pageClass) {
+        ReadyWhen custom = pageClass.getAnnotation(ReadyWhen.class);
+        if (custom != null) {
+            return new PageReadiness(custom.value(), new Object[0], List.of(), List.of());
+        }
+        List<List<String>> pageLocators = new ArrayList<>();
+        List<By> javaLocators = new ArrayList<>();
+        List<By> requiredLocators = new ArrayList<>();
+        for (Class<?> type = pageClass; type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (!field.isAnnotationPresent(FindBy.class) || field.isAnnotationPresent(OptionalElement.class)) {
+                    continue;
+                }
+                By locator = new Annotations(field).buildBy();
+                requiredLocators.add(locator);
+                String[] pageLocator = WaitEngine.toPageLocator(locator);
+                if (pageLocator != null) {
+                    pageLocators.add(Arrays.asList(pageLocator));
+                } else {
+                    javaLocators.add(locator);
+                }
+            }
+        }
+        return new PageReadiness(ELEMENTS_PRESENT, new Object[] {pageLocators}, javaLocators, requiredLocators);
+    }
+    
+    /**
+     * Checks from Java that every locator matches at least one element.
+     * 
+     * @param locators locators to check
+     * @return true if all are present
+     */
+    private boolean allPresent(List<By> locators) {
+        for (By locator : locators) {
+            if (driver.findElements(locator).isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Finds every locator through the driver, so Healenium can heal broken ones.
+     * 
+     * @param locators locators to find
+     * @return true once all are found; a missing element throws and the caller keeps polling
+     */
+    private boolean allFound(List<By> locators) {
+        for (By locator : locators) {
+            driver.findElement(locator);
+        }
+        return true;
+    }
+    
+    /**
+     * Builds one predicate evaluating every condition and waits for it.
+     * 
+     * @param conditions conditions to combine
+     * @param any true for any-of, false for all-of
+     * @return indices of the satisfied conditions
+     */
+    private List<?> awaitComposite(WaitCondition[] conditions, boolean any) {
+        if (conditions.length == 0) {
+            throw new IllegalArgumentException("At least one condition is required");
+        }
+        StringBuilder body = new StringBuilder("var conditions = [");
+        List<Object> conditionArgs = new ArrayList<>();
+        for (int i = 0; i < conditions.length; i++) {
+            body.append(i == 0 ? "" : ",").append("function (args) {").append(conditions[i].getPredicate()).append("}");
+            conditionArgs.add(conditions[i].getArgs());
+        }
+        body.append("];")
+            .append("var fired = [];")
+            .append("for (var i = 0; i < conditions.length; i++) {")
+            .append("  var ok = false;")
+            .append("  try { ok = !!conditions[i](args[0][i]); } catch (e) { }")
+            .append("  if (ok) { fired.push(i); }")
+            .append("}")
+            .append(any ? "return fired.length > 0 ? fired : false;" : "return fired.length === conditions.length ? fired : false;");
+        
+        String predicate = body.toString();
+        Object[] args = new Object[] {conditionArgs};
+        String description = (any ? "any of " : "all of ")
+            + Arrays.stream(conditions).map(WaitCondition::getDescription).collect(Collectors.joining(", "));
+        return (List<?>) engine.await(predicate, args, d -> engine.evaluate(predicate, args), timeout, description);
+    }
+    
+    /**
+     * Waits for a page-object element to become visible.
+     * 
+     * @param element WebElement to wait for
+     * @param waitTimeout maximum time to wait
+     */
+    private void waitForElement(WebElement element, Duration waitTimeout) {
+        engine.await(ELEMENT_VISIBLE, new Object[] {element},
+            ExpectedConditions.visibilityOf(element), waitTimeout, "element to be visible");
+    }
+    
+    /**
+     * Waits for the element matching a locator to become visible.
+     * 
+     * @param locator locator of the element to wait for
+     * @param waitTimeout maximum time to wait
+     */
+    private void waitForElementVisible(By locator, Duration waitTimeout) {
+        String[] pageLocator = WaitEngine.toPageLocator(locator);
+        if (pageLocator == null) {
+            engine.poll(ExpectedConditions.visibilityOfElementLocated(locator), waitTimeout, "visibility of " + locator);
+            return;
+        }
+        engine.await(LOCATOR_VISIBLE, pageLocator,
+            ExpectedConditions.visibilityOfElementLocated(locator), waitTimeout, "visibility of " + locator);
+    }
 }
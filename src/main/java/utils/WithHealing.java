@@ -0,0 +1,26 @@
+package utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Overrides Healenium self-healing for a single test method or every test in a class.
+ * Applied by BaseTest through {@link HealeniumConfig#setThreadOverride(boolean)},
+ * so it affects only the thread running the test.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface WithHealing {
+    
+    /**
+     * Whether healing is enabled while the test runs.
+     * 
+     * @return true to enable healing, false to disable it
+     */
+    boolean value();
+}
@@ -1,12 +1,27 @@
 package base;
 
 import java.io.File;
+import java.lang.reflect.Method;
+import java.nio.file.Paths;
+import java.util.Arrays;
 import org.openqa.selenium.WebDriver;
+import org.testng.ITestContext;
 import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
 import utils.ConfigReader;
 import utils.DriverManager;
+import utils.DriverPool;
+import utils.FailureBundle;
+import utils.FindLatencyRecorder;
+import utils.HealeniumConfig;
+import utils.HealingBootstrap;
+import utils.ResourceBlocker;
+import utils.ScreenshotWriter;
+import utils.TestLog;
+import utils.WithHealing;
 
 /**
  * Base Test class
@@ -15,55 +30,171 @@ import utils.DriverManager;
  */
 public class BaseTest {
     
-    protected WebDriver driver;
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(BaseTest.class);
+    
     protected ConfigReader config;
     
+    /**
+     * Returns the driver bound to the current test thread.
+     * Tests must use this instead of a shared field so parallel methods
+     * on the same class instance never see each other's session.
+     * 
+     * @return current thread's WebDriver
+     */
+    protected WebDriver getDriver() {
+        return DriverManager.getCurrentDriver();
+    }
+    
+    /**
+     * Returns the browser this class runs on.
+     * Classes that need a particular browser feature override this.
+     * 
+     * @return browser name (chrome, firefox, edge)
+     */
+    protected String getBrowser() {
+        return config.getBrowser();
+    }
+    
+    /**
+     * Returns the page each test starts on.
+     * Classes that run against local fixtures override this so they never load the live site.
+     * 
+     * @return URL opened before each test
+     */
+    protected String getStartUrl() {
+        return config.getUrl();
+    }
+    
+    /**
+     * Returns whether this class's sessions block unneeded resources when
+     * {@code network.block.enabled} is off for the run. Defaults to the
+     * {@code network.block.enabled} parameter of the current {@code <test>}.
+     * 
+     * @param context current test context
+     * @return true to block resources on this test's session
+     */
+    protected boolean blocksResources(ITestContext context) {
+        return Boolean.parseBoolean(context.getCurrentXmlTest().getParameter("network.block.enabled"));
+    }
+    
+    /**
+     * Suite setup - starts local healing infrastructure before any browser is created,
+     * then pre-launches pool.warm browser sessions
+     */
+    @BeforeSuite(alwaysRun = true)
+    public void setUpSuite() {
+        HealingBootstrap.start();
+        
+        ConfigReader suiteConfig = ConfigReader.getInstance();
+        int warm = suiteConfig.getIntProperty("pool.warm", 0);
+        if (warm > 0) {
+            DriverPool pool = DriverManager.getPool(suiteConfig.getBrowser());
+            pool.warmUp(warm);
+            LOG.info("Driver pool warmed: {}", pool.getStats());
+        }
+    }
+    
     /**
      * Setup method - runs before each test
-     * Initializes browser and navigates to application
+     * Applies any @WithHealing override, initializes browser and navigates to application
      */
     @BeforeMethod
-    public void setUp() {
+    public void setUp(Method method, Object[] parameters, ITestContext context) {
+        // Buffer this thread's log events until the test ends
+        String testName = getClass().getSimpleName() + "." + method.getName()
+            + (parameters.length > 0 ? Arrays.toString(parameters) : "");
+        TestLog.startTest(testName);
+        
+        // Per-test healing switch, in memory and scoped to this thread
+        WithHealing healing = method.getAnnotation(WithHealing.class);
+        if (healing == null) {
+            healing = method.getDeclaringClass().getAnnotation(WithHealing.class);
+        }
+        if (healing != null) {
+            HealeniumConfig.setThreadOverride(healing.value());
+        }
+        
         // Create screenshots directory if it doesn't exist
         File screenshotDir = new File(System.getProperty("user.dir") + "/screenshots");
         if (!screenshotDir.exists()) {
             screenshotDir.mkdirs();
         }
         
-        // Initialize configuration
-        config = new ConfigReader();
+        // Shared configuration snapshot, loaded once per JVM
+        config = ConfigReader.getInstance();
         
         // Initialize browser
-        String browser = config.getBrowser();
-        driver = DriverManager.getDriver(browser);
+        String browser = getBrowser();
+        WebDriver driver = DriverManager.getDriver(browser);
+        TestLog.tagSession(DriverManager.getSessionId(driver));
+        LOG.info("Waited {} ms for a browser session", DriverManager.getPool(browser).getLastLeaseWaitMillis());
+        
+        // Count blocked resources per test; an opted-in session is discarded after the test
+        ResourceBlocker blocker = ResourceBlocker.forDriver(driver);
+        if (blocker == null && blocksResources(context)) {
+            blocker = ResourceBlocker.enable(driver);
+        }
+        if (blocker != null) {
+            blocker.mark();
+        }
         
         // Navigate to application URL
-        String url = config.getUrl();
-        driver.get(url);
+        driver.get(getStartUrl());
         
-        System.out.println("Test Started - Browser: " + browser);
+        LOG.info("Test Started - Browser: {}", browser);
     }
     
     /**
-     * Teardown method - runs after each test
-     * Takes screenshot on failure and closes browser
+     * Teardown method - runs after each test, also when setUp failed after leasing a browser
+     * Captures a failure bundle on failure and returns the browser to the session pool
      */
-    @AfterMethod
-   public void tearDown(ITestResult result) {
-        // Take screenshot if test fails
+    @AfterMethod(alwaysRun = true)
+    public void tearDown(ITestResult result) {
+        // Collect screenshot, DOM, console log and healing events if test fails
         if (result.getStatus() == ITestResult.FAILURE) {
             String testName = result.getName();
-            DriverManager.takeScreenshot(testName);
-            System.out.println("Test Failed: " + testName);
+            FailureBundle.capture(testName, result.getStartMillis());
+            LOG.warn("Test Failed: {}", testName);
         } else if (result.getStatus() == ITestResult.SUCCESS) {
-            System.out.println("Test Passed: " + result.getName());
+            LOG.info("Test Passed: {}", result.getName());
         }
         
         // Optional: Pause to see results (uncomment for debugging)
         // try { Thread.sleep(3000); } catch (InterruptedException e) { }
         
-        // Close browser
-        DriverManager.quitDriver();
-        System.out.println("Browser Closed");
+        ResourceBlocker blocker = ResourceBlocker.forDriver(getDriver());
+        if (blocker != null) {
+            LOG.info("{}", blocker.describeSinceMark());
+        }
+        
+        // Return browser to the pool; a scrubbed session is reused by the next test
+        if (blocker != null && !ResourceBlocker.isEnabled()) {
+            DriverManager.quitDriver();
+        } else {
+            DriverManager.releaseDriver();
+        }
+        HealeniumConfig.clearThreadOverride();
+        LOG.info("Browser Released");
+        
+        // Hand the test's log block to the background writer
+        TestLog.endTest(result.getStatus() == ITestResult.SUCCESS ? "PASSED"
+            : result.getStatus() == ITestResult.FAILURE ? "FAILED" : "SKIPPED");
+    }
+    
+    /**
+     * Suite teardown - quits pooled sessions and any session a worker thread left behind
+     */
+    @AfterSuite(alwaysRun = true)
+    public void tearDownSuite() {
+        DriverManager.quitAllDrivers();
+        LOG.info("{}", ResourceBlocker.getTotals());
+        ResourceBlocker.saveSizes();
+        FailureBundle.awaitPending(30);
+        ScreenshotWriter.shutdown(30);
+        HealingBootstrap.stop();
+        FindLatencyRecorder.getInstance().dump(
+            Paths.get("target", "find-latency-" + System.currentTimeMillis() + ".json"));
+        TestLog.shutdown(10);
     }
 }
@@ -0,0 +1,155 @@
+package base;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+import org.testng.SkipException;
+import utils.ConfigReader;
+import utils.TestHistory;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Runs the tests most likely to fail, and cheapest, first.
+ * Each method is scored from the test history as failure likelihood divided
+ * by expected duration, so a broken build shows red as early as possible.
+ * Likelihood blends the weighted failure rate with how recently the test
+ * failed; methods without history get {@code failfast.unseen.failure.rate}
+ * and the average known duration. Methods with equal scores keep their
+ * original order. TestNG runs methods by priority before it looks at the
+ * interceptor's order, so the fail-first position becomes each method's
+ * priority; declared priorities only break ties, through the order TestNG
+ * hands in. With {@code failfast.max.failures} K greater than 0,
+ * every test starting after K failures is skipped.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class FailFastOrderer implements IMethodInterceptor, IInvokedMethodListener, ITestListener {
+    
+    /** Weight of the failure rate against recency in the likelihood */
+    private static final double RATE_WEIGHT = 0.7;
+    
+    /** Failures seen so far in this run */
+    private final AtomicInteger failures = new AtomicInteger();
+    
+    /** Failures after which remaining tests are skipped, 0 to run everything */
+    private final int maxFailures;
+    
+    /** History to order by, or null to load the history file on each interception */
+    private final TestHistory history;
+    
+    /**
+     * Creates the listener with {@code failfast.max.failures} from the configuration.
+     */
+    public FailFastOrderer() {
+        this(ConfigReader.getInstance().getIntProperty("failfast.max.failures", 0));
+    }
+    
+    /**
+     * Creates the listener with an explicit failure budget.
+     * 
+     * @param maxFailures failures after which remaining tests are skipped, 0 to run everything
+     */
+    public FailFastOrderer(int maxFailures) {
+        this(maxFailures, null);
+    }
+    
+    /**
+     * Creates the listener with an explicit failure budget and history.
+     * 
+     * @param maxFailures failures after which remaining tests are skipped, 0 to run everything
+     * @param history history to order by, or null to load the history file
+     */
+    public FailFastOrderer(int maxFailures, TestHistory history) {
+        this.maxFailures = maxFailures;
+        this.history = history;
+    }
+    
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        ConfigReader config = ConfigReader.getInstance();
+        if (!config.getBooleanProperty("failfast.order.enabled", true) || methods.size() < 2) {
+            return methods;
+        }
+        double unseenRate = config.getIntProperty("failfast.unseen.failure.rate", 20) / 100.0;
+        List<IMethodInstance> ordered = order(methods, instance -> RunHistoryRecorder.keyOf(instance.getMethod()),
+            history != null ? history : TestHistory.load(TestHistory.defaultPath()), unseenRate);
+        
+        // Priority outranks the returned order when TestNG schedules methods
+        for (int i = 0; i < ordered.size(); i++) {
+            ordered.get(i).getMethod().setPriority(i);
+        }
+        return ordered;
+    }
+    
+    /**
+     * Orders items by failure likelihood per expected millisecond, highest first.
+     * 
+     * @param items items in their original order
+     * @param keyOf history key of an item ({@code <class>.<method>})
+     * @param history recorded runs
+     * @param unseenRate failure likelihood assumed for items without history
+     * @param <T> item type
+     * @return new list, fail-first; equal scores keep their original order
+     */
+    public static <T> List<T> order(List<T> items, Function<T, String> keyOf, TestHistory history, double unseenRate) {
+        long knownTotal = 0;
+        int knownCount = 0;
+        for (T item : items) {
+            TestHistory.Record record = history.get(keyOf.apply(item));
+            if (record != null) {
+                knownTotal += record.getAverageMillis();
+                knownCount++;
+            }
+        }
+        long unseenMillis = knownCount == 0 ? 1 : Math.max(1, knownTotal / knownCount);
+        
+        Map<T, Double> scores = new HashMap<>();
+        for (T item : items) {
+            TestHistory.Record record = history.get(keyOf.apply(item));
+            scores.put(item, record == null
+                ? unseenRate / unseenMillis
+                : likelihood(record) / Math.max(1, record.getAverageMillis()));
+        }
+        
+        // List.sort is stable, so methods without a signal keep their priority order
+        List<T> ordered = new ArrayList<>(items);
+        ordered.sort(Comparator.comparing(scores::get, Comparator.reverseOrder()));
+        return ordered;
+    }
+    
+    @Override
+    public void beforeInvocation(IInvokedMethod method, ITestResult testResult) {
+        if (maxFailures > 0 && method.isTestMethod() && failures.get() >= maxFailures) {
+            throw new SkipException("Skipped after " + failures.get() + " failures (failfast.max.failures="
+                + maxFailures + ")");
+        }
+    }
+    
+    @Override
+    public void onTestFailure(ITestResult result) {
+        failures.incrementAndGet();
+    }
+    
+    /**
+     * Estimates how likely a test is to fail next run.
+     * 
+     * @param record test history
+     * @return likelihood between 0 and 1
+     */
+    private static double likelihood(TestHistory.Record record) {
+        double recency = record.getRunsSinceFailure() < 0 ? 0.0 : 1.0 / (1 + record.getRunsSinceFailure());
+        return RATE_WEIGHT * record.getFailureRate() + (1 - RATE_WEIGHT) * recency;
+    }
+}
@@ -0,0 +1,120 @@
+package base;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the static fixtures under /fixtures on the classpath over local HTTP
+ * and counts the requests per path, so tests can check what the browser loaded.
+ * Shared by the UI tests (src/test/resources/fixtures) and the benchmarks module
+ * through the test-jar, which keeps tests and benchmarks independent of the
+ * network and the real application without shipping it in the framework jar.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class FixtureServer {
+    
+    /** Content types by file extension */
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+        "html", "text/html; charset=utf-8",
+        "js", "application/javascript",
+        "css", "text/css",
+        "png", "image/png",
+        "jpg", "image/jpeg",
+        "woff2", "font/woff2");
+    
+    /** Local HTTP server */
+    private final HttpServer server;
+    
+    /** Requests served per path, whatever the method */
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    
+    /**
+     * Starts serving /fixtures/* from the classpath on a free port.
+     * 
+     * @throws IOException if the server cannot be started
+     */
+    public FixtureServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                String path = exchange.getRequestURI().getPath();
+                hits.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+                try (InputStream in = FixtureServer.class.getResourceAsStream("/fixtures" + path)) {
+                    if (in == null) {
+                        exchange.sendResponseHeaders(404, -1);
+                        return;
+                    }
+                    byte[] body = in.readAllBytes();
+                    String extension = path.substring(path.lastIndexOf('.') + 1);
+                    exchange.getResponseHeaders().set("Content-Type",
+                        CONTENT_TYPES.getOrDefault(extension, "application/octet-stream"));
+                    if ("HEAD".equals(exchange.getRequestMethod())) {
+                        exchange.getResponseHeaders().set("Content-Length", String.valueOf(body.length));
+                        exchange.sendResponseHeaders(200, -1);
+                        return;
+                    }
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                }
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+    
+    /**
+     * Builds the URL of a fixture file.
+     * 
+     * @param file fixture file name, e.g. resources.html
+     * @return absolute URL
+     */
+    public String url(String file) {
+        return "http://localhost:" + server.getAddress().getPort() + "/" + file;
+    }
+    
+    /**
+     * Counts requests served for a path, including HEAD requests.
+     * 
+     * @param path request path, e.g. /logo.png
+     * @return number of requests
+     */
+    public int getHits(String path) {
+        AtomicInteger count = hits.get(path);
+        return count == null ? 0 : count.get();
+    }
+    
+    /**
+     * Reads the size of a fixture file.
+     * 
+     * @param file fixture file name, e.g. logo.png
+     * @return size in bytes
+     * @throws IOException if the fixture cannot be read
+     */
+    public long size(String file) throws IOException {
+        try (InputStream in = FixtureServer.class.getResourceAsStream("/fixtures/" + file)) {
+            if (in == null) {
+                throw new IOException("No fixture " + file);
+            }
+            return in.readAllBytes().length;
+        }
+    }
+    
+    /**
+     * Stops the server.
+     */
+    public void stop() {
+        server.stop(0);
+    }
+}
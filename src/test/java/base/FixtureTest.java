@@ -0,0 +1,50 @@
+package base;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+
+import java.io.IOException;
+
+/**
+ * Base class for tests that run against the local fixtures instead of the application.
+ * Serves the fixtures for the class and starts every test on a blank page, so
+ * no test of the class depends on the network or the live site.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public abstract class FixtureTest extends BaseTest {
+    
+    /** Local server for the fixture pages and their resources */
+    protected FixtureServer server;
+    
+    /**
+     * Starts the fixture server.
+     * 
+     * @throws IOException if the server cannot be started
+     */
+    @BeforeClass(alwaysRun = true)
+    public void startFixtureServer() throws IOException {
+        server = new FixtureServer();
+    }
+    
+    /**
+     * Stops the fixture server.
+     */
+    @AfterClass(alwaysRun = true)
+    public void stopFixtureServer() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+    
+    /**
+     * Starts on a blank page; each test opens the fixture it needs.
+     * 
+     * @return about:blank
+     */
+    @Override
+    protected String getStartUrl() {
+        return "about:blank";
+    }
+}
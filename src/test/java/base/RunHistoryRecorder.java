@@ -0,0 +1,77 @@
+package base;
+
+import org.testng.ISuite;
+import org.testng.ISuiteListener;
+import org.testng.ITestListener;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import utils.TestHistory;
+import utils.TestLog;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TestNG listener that records how long each test method took and whether it
+ * failed into the test history file. Data provider invocations of one method
+ * are summed, since the method is the unit the shard planner and the fail-fast
+ * ordering work with.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class RunHistoryRecorder implements ITestListener, ISuiteListener {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(RunHistoryRecorder.class);
+    
+    /** Time spent per test key during this run */
+    private final Map<String, Long> durations = new ConcurrentHashMap<>();
+    
+    /** Test keys with at least one failed invocation during this run */
+    private final Set<String> failed = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * Builds the history key of a test method.
+     * 
+     * @param method TestNG method
+     * @return {@code <class>.<method>}
+     */
+    public static String keyOf(ITestNGMethod method) {
+        return method.getRealClass().getName() + "." + method.getMethodName();
+    }
+    
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        record(result);
+    }
+    
+    @Override
+    public void onTestFailure(ITestResult result) {
+        failed.add(keyOf(result.getMethod()));
+        record(result);
+    }
+    
+    @Override
+    public void onFinish(ISuite suite) {
+        if (durations.isEmpty()) {
+            return;
+        }
+        Path file = TestHistory.defaultPath();
+        TestHistory history = TestHistory.load(file);
+        durations.forEach((key, millis) -> history.recordRun(key, millis, failed.contains(key)));
+        history.save(file);
+        LOG.info("Test history recorded to {}", file.toAbsolutePath());
+    }
+    
+    /**
+     * Adds one invocation to the method's total.
+     * 
+     * @param result finished invocation
+     */
+    private void record(ITestResult result) {
+        durations.merge(keyOf(result.getMethod()), result.getEndMillis() - result.getStartMillis(), Long::sum);
+    }
+}
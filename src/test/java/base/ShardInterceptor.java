@@ -0,0 +1,100 @@
+package base;
+
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ISuite;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import utils.ConfigReader;
+import utils.ShardPlanner;
+import utils.TestHistory;
+import utils.TestLog;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Keeps only the test methods assigned to this CI node.
+ * With {@code shard.total} N greater than 1 and {@code shard.index} i
+ * (or SHARD_TOTAL / SHARD_INDEX), the whole suite is planned once with
+ * {@link ShardPlanner} from the recorded durations and each {@code <test>}
+ * runs only the methods of shard i. Every node runs the same testng.xml.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class ShardInterceptor implements IMethodInterceptor {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(ShardInterceptor.class);
+    
+    /** Planned shard index per test key, by suite */
+    private final Map<ISuite, Map<String, Integer>> plans = new HashMap<>();
+    
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        ConfigReader config = ConfigReader.getInstance();
+        int total = config.getIntProperty("shard.total", 1);
+        int index = config.getIntProperty("shard.index", 0);
+        if (total <= 1) {
+            return methods;
+        }
+        if (index < 0 || index >= total) {
+            throw new IllegalArgumentException("shard.index " + index + " out of range for shard.total " + total);
+        }
+        Map<String, Integer> plan = planFor(context.getSuite(), total, index);
+        List<IMethodInstance> kept = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            if (plan.getOrDefault(RunHistoryRecorder.keyOf(instance.getMethod()), 0) == index) {
+                kept.add(instance);
+            }
+        }
+        return kept;
+    }
+    
+    /**
+     * Plans the whole suite on first use, so every {@code <test>} sees the same split.
+     * 
+     * @param suite running suite
+     * @param total number of nodes
+     * @param index this node
+     * @return shard index per test key
+     */
+    private synchronized Map<String, Integer> planFor(ISuite suite, int total, int index) {
+        Map<String, Integer> plan = plans.get(suite);
+        if (plan != null) {
+            return plan;
+        }
+        Set<String> units = new TreeSet<>();
+        for (ITestNGMethod method : suite.getAllMethods()) {
+            units.add(RunHistoryRecorder.keyOf(method));
+        }
+        TestHistory history = TestHistory.load(TestHistory.defaultPath());
+        Map<String, Long> durations = new HashMap<>();
+        for (String unit : units) {
+            TestHistory.Record record = history.get(unit);
+            if (record != null) {
+                durations.put(unit, record.getAverageMillis());
+            }
+        }
+        
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(new ArrayList<>(units), durations, total);
+        plan = new HashMap<>();
+        for (ShardPlanner.Shard shard : shards) {
+            for (String unit : shard.getUnits()) {
+                plan.put(unit, shard.getIndex());
+            }
+        }
+        plans.put(suite, plan);
+        
+        ShardPlanner.Shard mine = shards.get(index);
+        LOG.info("Shard {}/{}: {} of {} methods, estimated {} ms, imbalance {}", index, total,
+            mine.getUnits().size(), units.size(), mine.getEstimatedMillis(),
+            String.format("%.2f", ShardPlanner.imbalance(shards)));
+        return plan;
+    }
+}
@@ -0,0 +1,30 @@
+package base;
+
+import org.testng.IExecutorServiceFactory;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs TestNG's parallel work on virtual threads.
+ * Every task TestNG submits gets its own virtual thread; with
+ * {@code parallel="methods"} that is one per test method. The thread parks
+ * cheaply while it waits on WebDriver HTTP calls or for a browser session.
+ * The suite's thread-count no longer limits concurrency. The number of tests holding a browser at once
+ * is limited by the session pool: {@link utils.DriverPool} hands out
+ * {@code pool.size} sessions through a fair semaphore.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class VirtualThreadExecutorFactory implements IExecutorServiceFactory {
+    
+    @Override
+    public ExecutorService create(int corePoolSize, int maximumPoolSize, long keepAliveTime, TimeUnit unit,
+                                  BlockingQueue<Runnable> workQueue, ThreadFactory threadFactory) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("test-vt-", 0).factory());
+    }
+}
@@ -0,0 +1,49 @@
+package base;
+
+import org.testng.TestNG;
+import utils.TestLog;
+
+import java.util.List;
+
+/**
+ * Runs a TestNG suite with test methods on virtual threads.
+ * Used by the {@code virtual-threads} Maven profile
+ * ({@code mvn verify -Pvirtual-threads}) with testng-virtual-threads.xml, which
+ * runs {@code parallel="methods"} so every method is its own task. Methods
+ * queue fairly for a browser session in the pool, and each one logs how long it
+ * waited. The pool stats at the end report the peak number of waiters. Give
+ * {@code pool.lease.timeout} enough room for the whole queue: all methods start
+ * at once and wait for the pool.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class VirtualThreadSuiteRunner {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(VirtualThreadSuiteRunner.class);
+    
+    /** Private constructor to prevent instantiation */
+    private VirtualThreadSuiteRunner() {
+        throw new IllegalStateException("Utility class");
+    }
+    
+    /**
+     * Runs the suite.
+     * 
+     * @param args suite XML files; defaults to testng-virtual-threads.xml
+     */
+    public static void main(String[] args) {
+        TestNG testng = new TestNG();
+        testng.setTestSuites(args.length > 0 ? List.of(args) : List.of("testng-virtual-threads.xml"));
+        testng.setExecutorServiceFactory(new VirtualThreadExecutorFactory());
+        
+        long start = System.nanoTime();
+        testng.run();
+        LOG.info("Virtual-thread suite finished in {} ms", (System.nanoTime() - start) / 1_000_000);
+        TestLog.shutdown(10);
+        if (testng.hasFailure()) {
+            throw new IllegalStateException("Test failures in virtual-thread suite");
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package tests;
+
+import base.BaseTest;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import utils.AuthSessionCache;
+import utils.TestLog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Test class for the authenticated session cache.
+ * A local site issues a session cookie on login and sends requests without a
+ * valid one back to the login page, so restore, rejection and expiry are
+ * checked in a real browser without the live application.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class AuthSessionCacheTest extends BaseTest {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(AuthSessionCacheTest.class);
+    
+    /** User of each session token the site accepts */
+    private final Map<String, String> tokens = new ConcurrentHashMap<>();
+    
+    /** Local site */
+    private HttpServer site;
+    private String siteUrl;
+    
+    /**
+     * Starts the local site.
+     * 
+     * @throws IOException if the server cannot be started
+     */
+    @BeforeClass(alwaysRun = true)
+    public void startSite() throws IOException {
+        site = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        site.createContext("/", this::handle);
+        site.start();
+        siteUrl = "http://127.0.0.1:" + site.getAddress().getPort();
+    }
+    
+    /**
+     * Stops the local site.
+     */
+    @AfterClass(alwaysRun = true)
+    public void stopSite() {
+        if (site != null) {
+            site.stop(0);
+        }
+    }
+    
+    /**
+     * Starts on a blank page; each test opens the local site.
+     * 
+     * @return about:blank
+     */
+    @Override
+    protected String getStartUrl() {
+        return "about:blank";
+    }
+    
+    /**
+     * Test case to verify a cached login is reused and a rejected cookie falls back to the UI login.
+     */
+    @Test(description = "Verify a rejected cached cookie falls back to the UI login")
+    public void testRejectedCookieFallsBackToUiLogin() {
+        AtomicInteger uiLogins = new AtomicInteger();
+        
+        Assert.assertTrue(login("rejected", 0, uiLogins), "First login failed");
+        Assert.assertEquals(uiLogins.get(), 1, "First login did not use the UI");
+        
+        Assert.assertTrue(login("rejected", 0, uiLogins), "Cached login failed");
+        Assert.assertEquals(uiLogins.get(), 1, "Cached login ran the UI login");
+        
+        // The site no longer accepts the cached cookie
+        tokens.values().removeIf("rejected"::equals);
+        Assert.assertTrue(login("rejected", 0, uiLogins), "Login after rejection failed");
+        Assert.assertEquals(uiLogins.get(), 2, "Rejected cookie did not fall back to the UI login");
+        Assert.assertTrue(getDriver().getCurrentUrl().endsWith("/secure"), "Not on the secure page");
+        
+        Assert.assertTrue(login("rejected", 0, uiLogins), "Login from the new cache entry failed");
+        Assert.assertEquals(uiLogins.get(), 2, "New cache entry not reused");
+        LOG.info("✓ Rejected cookie fell back to the UI login");
+    }
+    
+    /**
+     * Test case to verify an entry whose cookie has expired is not restored.
+     */
+    @Test(description = "Verify an expired cached login runs the UI login again")
+    public void testExpiredEntryRunsUiLogin() throws InterruptedException {
+        AtomicInteger uiLogins = new AtomicInteger();
+        
+        Assert.assertTrue(login("expiring", 1, uiLogins), "First login failed");
+        Thread.sleep(2_000);
+        Assert.assertTrue(login("expiring", 1, uiLogins), "Login after expiry failed");
+        
+        Assert.assertEquals(uiLogins.get(), 2, "Expired entry restored instead of a UI login");
+        LOG.info("✓ Expired entry replaced by a UI login");
+    }
+    
+    /**
+     * Logs in as a fresh browser would: no cookies, on the login page.
+     * 
+     * @param username user to log in; each test uses its own cache entry
+     * @param maxAge Max-Age of the session cookie in seconds, 0 for a browser session cookie
+     * @param uiLogins counts the real logins
+     * @return result of {@link AuthSessionCache#login}
+     */
+    private boolean login(String username, int maxAge, AtomicInteger uiLogins) {
+        WebDriver driver = getDriver();
+        driver.get(siteUrl + "/login");
+        driver.manage().deleteAllCookies();
+        return AuthSessionCache.login(driver, username, "secret", () -> {
+            uiLogins.incrementAndGet();
+            driver.get(siteUrl + "/do-login?user=" + username + "&maxAge=" + maxAge);
+            return driver.getCurrentUrl().endsWith("/secure");
+        });
+    }
+    
+    /**
+     * Serves the login page, issues a session on /do-login and guards /secure.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String cookies = exchange.getRequestHeaders().getFirst("Cookie");
+        if ("/do-login".equals(path)) {
+            Map<String, String> query = new HashMap<>();
+            for (String pair : exchange.getRequestURI().getQuery().split("&")) {
+                String[] parts = pair.split("=", 2);
+                query.put(parts[0], parts.length > 1 ? parts[1] : "");
+            }
+            String token = UUID.randomUUID().toString();
+            tokens.put(token, query.get("user"));
+            int maxAge = Integer.parseInt(query.getOrDefault("maxAge", "0"));
+            exchange.getResponseHeaders().add("Set-Cookie", "session=" + token + "; Path=/"
+                + (maxAge > 0 ? "; Max-Age=" + maxAge : ""));
+            redirect(exchange, "/secure");
+        } else if ("/secure".equals(path)) {
+            if (cookies != null && tokens.keySet().stream().anyMatch(token -> cookies.contains("session=" + token))) {
+                send(exchange, "<h1 id=\"secure\">Secure Area</h1>");
+            } else {
+                redirect(exchange, "/login");
+            }
+        } else {
+            send(exchange, "<form id=\"login\"><input id=\"username\"></form>");
+        }
+    }
+    
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+    
+    private static void send(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = ("<!DOCTYPE html><html><body>" + body + "</body></html>").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -5,6 +5,11 @@ import org.testng.Assert;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 import pages.LoginPage;
+import utils.ConfigReader;
+import utils.StreamingDataProvider;
+import utils.TestLog;
+
+import java.util.Iterator;
 
 /**
  * Data-driven test class for Login functionality.
@@ -16,25 +21,29 @@ import pages.LoginPage;
  */
 public class DataDrivenLoginTest extends BaseTest {
     
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(DataDrivenLoginTest.class);
+    
     /**
-     * Data provider that supplies test data for parameterized login tests.
-     * Each array element represents a test iteration with username and password.
+     * Data provider that streams invalid credentials from the file named by {@code login.data.file}.
+     * Rows are read lazily and, with {@code data.shard.total} greater than 1, split across CI nodes.
+     * Iterations are dispatched in parallel across pooled sessions. A parallel provider is
+     * drained up front: TestNG 7 builds one worker per row before handing them to the
+     * {@code data-provider-thread-count} pool, so every row of this node's shard is held in
+     * memory while the file is still read line by line. Keep per-node shards small, or set
+     * {@code parallel = false} to pull one row per iteration.
      * 
-     * @return 2D array where each row contains [username, password]
+     * @return lazy iterator where each row contains [username, password]
      */
-    @DataProvider(name = "loginData")
-    public Object[][] getLoginData() {
-        return new Object[][] {
-            {"invalidUser1", "password123"},
-            {"invalidUser2", "test@123"},
-            {"", "password"},
-            {"username", ""}
-        };
+    @DataProvider(name = "loginData", parallel = true)
+    public Iterator<Object[]> getLoginData() {
+        String dataFile = ConfigReader.getInstance().getProperty("login.data.file", "data/invalid-logins.csv");
+        return StreamingDataProvider.open(dataFile, "username", "password");
     }
     
     /**
      * Test case to verify login fails with multiple invalid credential combinations.
-     * This test runs 4 times with different data sets from the data provider.
+     * This test runs once per row of the login data file.
      * Validates that error message is displayed for each invalid credential combination.
      * 
      * @param username the username to test
@@ -42,23 +51,16 @@ public class DataDrivenLoginTest extends BaseTest {
      */
     @Test(dataProvider = "loginData", description = "Data-driven login test")
     public void testLoginWithMultipleInvalidData(String username, String password) {
-        LoginPage loginPage = new LoginPage(driver);
+        LoginPage loginPage = new LoginPage(getDriver());
         
         // Attempt login
         loginPage.login(username, password);
         
-        // Wait for error message
-        try {
-            Thread.sleep(1000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
-        
-        // Verify error message is displayed
-        boolean errorDisplayed = loginPage.isErrorMessageDisplayed();
+        // Wait for error message and verify it is displayed
+        boolean errorDisplayed = loginPage.waitForErrorMessage();
         Assert.assertTrue(errorDisplayed, 
             "Error message not displayed for credentials: " + username + " / " + password);
         
-        System.out.println("✓ Test passed for: " + username + " / " + password);
+        LOG.info("✓ Test passed for: {} / {}", username, password);
     }
 }
@@ -0,0 +1,175 @@
+package tests;
+
+import base.FailFastOrderer;
+import org.testng.Assert;
+import org.testng.IInvokedMethod;
+import org.testng.SkipException;
+import org.testng.TestNG;
+import org.testng.annotations.Test;
+import org.testng.xml.XmlClass;
+import org.testng.xml.XmlSuite;
+import org.testng.xml.XmlTest;
+import utils.TestHistory;
+import utils.TestLog;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Test class for fail-fast ordering.
+ * Scores come from an in-memory history and the failure budget is driven
+ * through the listener callbacks, so no browser or history file is needed.
+ * One case runs a small TestNG suite to check the order TestNG actually executes.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class FailFastOrdererTest {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(FailFastOrdererTest.class);
+    
+    /**
+     * Test case to verify likely, cheap failures run first and stable tests last.
+     */
+    @Test(description = "Verify tests are ordered by failure likelihood per millisecond")
+    public void testOrderedByScore() {
+        TestHistory history = new TestHistory();
+        history.recordRun("stable", 1_000, false);
+        history.recordRun("slowFailing", 10_000, true);
+        history.recordRun("failing", 1_000, true);
+        
+        List<String> ordered = FailFastOrderer.order(List.of("stable", "unseen", "slowFailing", "failing"),
+            Function.identity(), history, 0.2);
+        
+        Assert.assertEquals(ordered, List.of("failing", "slowFailing", "unseen", "stable"), "Wrong fail-first order");
+        LOG.info("✓ Ordered by score: {}", ordered);
+    }
+    
+    /**
+     * Test case to verify a recent failure outranks an old one with the same duration.
+     */
+    @Test(description = "Verify recent failures are ordered first")
+    public void testRecentFailureFirst() {
+        TestHistory history = new TestHistory();
+        history.recordRun("failedLongAgo", 1_000, true);
+        for (int i = 0; i < 5; i++) {
+            history.recordRun("failedLongAgo", 1_000, false);
+        }
+        history.recordRun("failedLastRun", 1_000, false);
+        history.recordRun("failedLastRun", 1_000, true);
+        
+        List<String> ordered = FailFastOrderer.order(List.of("failedLongAgo", "failedLastRun"),
+            Function.identity(), history, 0.2);
+        
+        Assert.assertEquals(ordered, List.of("failedLastRun", "failedLongAgo"), "Recent failure not first");
+    }
+    
+    /**
+     * Test case to verify tests with equal scores keep their original order.
+     */
+    @Test(description = "Verify equal scores keep the original order")
+    public void testEqualScoresKeepOrder() {
+        List<String> ordered = FailFastOrderer.order(List.of("c", "a", "b"), Function.identity(), new TestHistory(), 0.2);
+        
+        Assert.assertEquals(ordered, List.of("c", "a", "b"), "Order changed without history");
+    }
+    
+    /**
+     * Test case to verify TestNG executes the fail-first order even when the methods declare priorities.
+     */
+    @Test(description = "Verify TestNG runs prioritized methods in fail-first order")
+    public void testExecutionOrderOverridesPriority() {
+        String prefix = PrioritizedSample.class.getName() + ".";
+        TestHistory history = new TestHistory();
+        history.recordRun(prefix + "first", 1_000, false);
+        history.recordRun(prefix + "second", 1_000, false);
+        history.recordRun(prefix + "third", 1_000, true);
+        PrioritizedSample.EXECUTED.clear();
+        
+        XmlSuite suite = new XmlSuite();
+        suite.setName("Fail-fast ordering");
+        XmlTest test = new XmlTest(suite);
+        test.setName("Prioritized");
+        test.setXmlClasses(List.of(new XmlClass(PrioritizedSample.class)));
+        TestNG testng = new TestNG(false);
+        testng.setUseDefaultListeners(false);
+        testng.setVerbose(0);
+        testng.setXmlSuites(List.of(suite));
+        testng.addListener(new FailFastOrderer(0, history));
+        testng.run();
+        
+        Assert.assertEquals(PrioritizedSample.EXECUTED, List.of("third", "first", "second"),
+            "TestNG did not follow the fail-first order");
+        LOG.info("✓ Executed in fail-first order: {}", PrioritizedSample.EXECUTED);
+    }
+    
+    /**
+     * Test case to verify every test starting after K failures is skipped.
+     */
+    @Test(description = "Verify the run stops after K failures")
+    public void testStopsAfterMaxFailures() {
+        FailFastOrderer orderer = new FailFastOrderer(2);
+        
+        orderer.beforeInvocation(invokedMethod(true), null);
+        orderer.onTestFailure(null);
+        orderer.beforeInvocation(invokedMethod(true), null);
+        orderer.onTestFailure(null);
+        
+        Assert.assertThrows(SkipException.class, () -> orderer.beforeInvocation(invokedMethod(true), null));
+        orderer.beforeInvocation(invokedMethod(false), null);
+        LOG.info("✓ Tests skipped after 2 failures");
+    }
+    
+    /**
+     * Test case to verify failures never skip tests when no budget is set.
+     */
+    @Test(description = "Verify no tests are skipped without a failure budget")
+    public void testNoBudgetRunsEverything() {
+        FailFastOrderer orderer = new FailFastOrderer(0);
+        for (int i = 0; i < 10; i++) {
+            orderer.onTestFailure(null);
+        }
+        
+        orderer.beforeInvocation(invokedMethod(true), null);
+    }
+    
+    /**
+     * Creates an invoked method that only answers {@link IInvokedMethod#isTestMethod()}.
+     * 
+     * @param testMethod whether it is a test method rather than a configuration method
+     * @return invoked method
+     */
+    private static IInvokedMethod invokedMethod(boolean testMethod) {
+        return (IInvokedMethod) Proxy.newProxyInstance(FailFastOrdererTest.class.getClassLoader(),
+            new Class<?>[] {IInvokedMethod.class},
+            (proxy, method, args) -> "isTestMethod".equals(method.getName()) ? testMethod : null);
+    }
+    
+    /**
+     * Methods whose priorities disagree with their history, run by the nested suite.
+     */
+    public static class PrioritizedSample {
+        
+        /** Methods in execution order */
+        static final List<String> EXECUTED = Collections.synchronizedList(new ArrayList<>());
+        
+        @Test(priority = 1)
+        public void first() {
+            EXECUTED.add("first");
+        }
+        
+        @Test(priority = 2)
+        public void second() {
+            EXECUTED.add("second");
+        }
+        
+        @Test(priority = 3)
+        public void third() {
+            EXECUTED.add("third");
+        }
+    }
+}
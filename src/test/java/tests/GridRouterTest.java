@@ -0,0 +1,210 @@
+package tests;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+import utils.GridRouter;
+import utils.TestLog;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Test class for the grid router.
+ * Each grid endpoint is a local HTTP server answering {@code /status} with a
+ * canned response and refusing new sessions, so ranking and retry order are
+ * checked without a grid or a browser.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class GridRouterTest {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(GridRouterTest.class);
+    
+    /** Session requests in arrival order, by endpoint name */
+    private final List<String> sessionRequests = Collections.synchronizedList(new ArrayList<>());
+    
+    /** Endpoints started by the current test */
+    private final List<StubGrid> grids = new ArrayList<>();
+    
+    /**
+     * Stops the stub endpoints.
+     */
+    @AfterMethod(alwaysRun = true)
+    public void stopGrids() {
+        grids.forEach(StubGrid::stop);
+        grids.clear();
+        sessionRequests.clear();
+    }
+    
+    /**
+     * Test case to verify endpoints with free slots come first, least loaded first.
+     */
+    @Test(description = "Verify endpoints are ranked by load")
+    public void testRankOrdersByLoad() throws IOException {
+        StubGrid full = grid("full", status(true, node("UP", slot("chrome", true), slot("chrome", true), slot("firefox", false))));
+        StubGrid busy = grid("busy", status(true, node("UP", slot("chrome", true), slot("chrome", false),
+            slot("chrome", false), slot("chrome", false))));
+        StubGrid idle = grid("idle", status(true, node("UP", slot("chrome", false), slot("chrome", false))));
+        GridRouter router = router(full, busy, idle);
+        
+        List<String> ranked = names(router.rankNodes("chrome"), full, busy, idle);
+        
+        Assert.assertEquals(ranked, List.of("idle", "busy", "full"), "Wrong endpoint order");
+        Assert.assertEquals(router.getNodes().get(0).getLastBusy(), 2, "Firefox slot counted as busy chrome slot");
+        Assert.assertEquals(router.getNodes().get(0).getLastCapacity(), 2, "Firefox slot counted as chrome capacity");
+        Assert.assertEquals(router.getNodes().get(1).getLastBusy(), 1, "Busy slots miscounted");
+        Assert.assertEquals(router.getNodes().get(1).getLastCapacity(), 4, "Capacity miscounted");
+        LOG.info("✓ Endpoints ranked: {}", ranked);
+    }
+    
+    /**
+     * Test case to verify endpoints that cannot take the session are left out.
+     */
+    @Test(description = "Verify unready, down and unreachable endpoints are skipped")
+    public void testRankSkipsUnavailableEndpoints() throws IOException {
+        StubGrid ready = grid("ready", status(true, node("UP", slot("chrome", false))));
+        StubGrid notReady = grid("notReady", status(false, node("UP", slot("chrome", false))));
+        StubGrid nodeDown = grid("nodeDown", status(true, node("DOWN", slot("chrome", false))));
+        StubGrid otherBrowser = grid("otherBrowser", status(true, node("UP", slot("firefox", false))));
+        StubGrid failing = grid("failing", null);
+        StubGrid unreachable = grid("unreachable", status(true, node("UP", slot("chrome", false))));
+        GridRouter router = router(ready, notReady, nodeDown, otherBrowser, failing, unreachable);
+        unreachable.stop();
+        
+        List<String> ranked = names(router.rankNodes("chrome"), ready, notReady, nodeDown, otherBrowser, failing, unreachable);
+        
+        Assert.assertEquals(ranked, List.of("ready"), "Unavailable endpoint ranked");
+        LOG.info("✓ Unavailable endpoints skipped");
+    }
+    
+    /**
+     * Test case to verify each round tries the endpoints in load order and the router gives up after the retries.
+     */
+    @Test(description = "Verify session retries follow the ranking and stop after the configured rounds")
+    public void testCreateSessionRetriesInLoadOrder() throws IOException {
+        StubGrid busy = grid("busy", status(true, node("UP", slot("chrome", true), slot("chrome", false))));
+        StubGrid idle = grid("idle", status(true, node("UP", slot("chrome", false), slot("chrome", false))));
+        GridRouter router = router(busy, idle);
+        
+        Assert.assertThrows(SessionNotCreatedException.class, () -> router.createSession(new ChromeOptions()));
+        
+        Assert.assertEquals(sessionRequests, List.of("idle", "busy", "idle", "busy"), "Wrong retry order");
+        for (GridRouter.Node node : router.getNodes()) {
+            Assert.assertEquals(node.getFailures(), 2, "Failures not counted for " + node.getUrl());
+            Assert.assertEquals(node.getSessions(), 0, "Session counted for " + node.getUrl());
+        }
+        LOG.info("✓ Session retries in order: {}", sessionRequests);
+    }
+    
+    /**
+     * Starts a stub endpoint.
+     * 
+     * @param name endpoint name recorded for session requests
+     * @param status body of the /status response, or null to answer 500
+     * @return started endpoint
+     * @throws IOException if the server cannot be started
+     */
+    private StubGrid grid(String name, String status) throws IOException {
+        StubGrid grid = new StubGrid(name, status, sessionRequests);
+        grids.add(grid);
+        return grid;
+    }
+    
+    /**
+     * Creates a router over stub endpoints, with two rounds and a short backoff.
+     */
+    private static GridRouter router(StubGrid... stubs) {
+        List<String> urls = new ArrayList<>();
+        for (StubGrid stub : stubs) {
+            urls.add(stub.url);
+        }
+        return new GridRouter(urls, Duration.ofSeconds(2), 2, Duration.ofMillis(10));
+    }
+    
+    /**
+     * Maps ranked endpoints back to stub names.
+     */
+    private static List<String> names(List<GridRouter.Node> nodes, StubGrid... stubs) {
+        return nodes.stream()
+            .map(node -> {
+                for (StubGrid stub : stubs) {
+                    if (node.getUrl().toString().equals(stub.url)) {
+                        return stub.name;
+                    }
+                }
+                return node.getUrl().toString();
+            })
+            .collect(Collectors.toList());
+    }
+    
+    private static String status(boolean ready, String... nodes) {
+        return "{\"value\":{\"ready\":" + ready + ",\"message\":\"\",\"nodes\":[" + String.join(",", nodes) + "]}}";
+    }
+    
+    private static String node(String availability, String... slots) {
+        return "{\"availability\":\"" + availability + "\",\"slots\":[" + String.join(",", slots) + "]}";
+    }
+    
+    private static String slot(String browser, boolean busy) {
+        return "{\"stereotype\":{\"browserName\":\"" + browser + "\"},\"session\":"
+            + (busy ? "{\"sessionId\":\"stub\"}" : "null") + "}";
+    }
+    
+    /**
+     * Grid endpoint answering /status with a fixed body and refusing every new session.
+     */
+    private static final class StubGrid {
+        
+        private final String name;
+        private final String url;
+        private final HttpServer server;
+        private boolean stopped;
+        
+        StubGrid(String name, String status, List<String> sessionRequests) throws IOException {
+            this.name = name;
+            this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            this.server.createContext("/status", exchange -> {
+                exchange.getRequestBody().readAllBytes();
+                send(exchange, status == null ? 500 : 200, status == null ? "{}" : status);
+            });
+            this.server.createContext("/session", exchange -> {
+                exchange.getRequestBody().readAllBytes();
+                sessionRequests.add(name);
+                send(exchange, 500, "{\"value\":{\"error\":\"session not created\","
+                    + "\"message\":\"stub grid refuses sessions\",\"stacktrace\":\"\"}}");
+            });
+            this.server.start();
+            this.url = "http://localhost:" + server.getAddress().getPort();
+        }
+        
+        void stop() {
+            if (!stopped) {
+                stopped = true;
+                server.stop(0);
+            }
+        }
+        
+        private static void send(HttpExchange exchange, int status, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package tests;
+
+import com.sun.net.httpserver.HttpServer;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import utils.EmbeddedHealingBackend;
+import utils.HealingCache;
+import utils.HealingCacheProxy;
+import utils.TestLog;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Test class for the healing cache tier.
+ * Runs {@link HealingCacheProxy} in front of {@link EmbeddedHealingBackend}
+ * and checks cache hits and misses, invalidation on writes, lookups racing a
+ * pending write and persistence of the cache file between runs. No browser is started.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class HealingCacheTest {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(HealingCacheTest.class);
+    
+    /** Selector baseline stored through the proxy */
+    private static final String LOCATOR = "By.id: login";
+    private static final String PAGE_URL = "https://the-internet.herokuapp.com/login";
+    
+    /** Lookup path of the stored baseline */
+    private static final String LOOKUP = "/healenium/selector?locator=" + encode(LOCATOR) + "&url=" + encode(PAGE_URL);
+    
+    /** Client standing in for the healing client */
+    private final HttpClient client = HttpClient.newHttpClient();
+    
+    private Path cacheFile;
+    private EmbeddedHealingBackend backend;
+    private HealingCache cache;
+    private HealingCacheProxy proxy;
+    
+    /**
+     * Starts a backend and a proxy with an empty cache file.
+     * 
+     * @throws IOException if a server cannot be started
+     */
+    @BeforeMethod
+    public void startProxy() throws IOException {
+        cacheFile = Files.createTempDirectory("healing-cache").resolve("healing-cache.bin");
+        backend = new EmbeddedHealingBackend(0, null);
+        backend.start();
+        cache = new HealingCache(cacheFile, Duration.ofHours(1), 100);
+        proxy = new HealingCacheProxy(backend.getUrl(), 0, cache);
+        proxy.start();
+    }
+    
+    /**
+     * Stops the proxy and the backend.
+     */
+    @AfterMethod(alwaysRun = true)
+    public void stopProxy() {
+        if (proxy != null) {
+            proxy.stop();
+        }
+        if (backend != null) {
+            backend.stop();
+        }
+    }
+    
+    /**
+     * Test case to verify a repeated lookup is answered from the cache.
+     */
+    @Test(description = "Verify repeated selector lookups are cache hits")
+    public void testRepeatedLookupServedFromCache() throws Exception {
+        saveBaseline("login");
+        
+        HttpResponse<String> first = send("GET", LOOKUP, null);
+        HttpResponse<String> second = send("GET", LOOKUP, null);
+        
+        Assert.assertEquals(first.statusCode(), 200, "Baseline lookup failed");
+        Assert.assertTrue(first.body().contains("login"), "Baseline not returned: " + first.body());
+        Assert.assertEquals(second.statusCode(), 200, "Cached lookup failed");
+        Assert.assertEquals(second.body(), first.body(), "Cached body differs from backend body");
+        Assert.assertEquals(cache.getMisses(), 1, "First lookup should miss");
+        Assert.assertEquals(cache.getHits(), 1, "Second lookup should hit");
+        LOG.info("✓ Lookups served from cache: {}", cache.getStats());
+    }
+    
+    /**
+     * Test case to verify lookups the backend cannot answer are not cached.
+     */
+    @Test(description = "Verify failed selector lookups are not cached")
+    public void testFailedLookupNotCached() throws Exception {
+        Assert.assertEquals(send("GET", LOOKUP, null).statusCode(), 404, "Unknown selector found");
+        Assert.assertEquals(send("GET", LOOKUP, null).statusCode(), 404, "Unknown selector found");
+        
+        Assert.assertEquals(cache.getMisses(), 2, "Both lookups should miss");
+        Assert.assertEquals(cache.getHits(), 0, "Failed lookup served from cache");
+        Assert.assertEquals(cache.size(), 0, "Failed lookup cached");
+        LOG.info("✓ Failed lookups not cached");
+    }
+    
+    /**
+     * Test case to verify a write drops cached lookups for the same endpoint.
+     */
+    @Test(description = "Verify selector writes invalidate cached lookups")
+    public void testWriteInvalidatesCachedLookup() throws Exception {
+        saveBaseline("login");
+        send("GET", LOOKUP, null);
+        Assert.assertEquals(cache.size(), 1, "Lookup not cached");
+        
+        saveBaseline("login-renamed");
+        
+        Assert.assertEquals(cache.size(), 0, "Cached lookup survived a write");
+        Assert.assertTrue(send("GET", LOOKUP, null).body().contains("login-renamed"), "Old baseline returned after write");
+        Assert.assertEquals(cache.getMisses(), 2, "Lookup after write should go to the backend");
+        LOG.info("✓ Write invalidated cached lookup");
+    }
+    
+    /**
+     * Test case to verify a lookup answered while a write is still on its way to the backend is not cached.
+     */
+    @Test(description = "Verify lookups racing a pending write are not cached")
+    public void testLookupDuringPendingWriteNotCached() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> stored = new AtomicReference<>("{\"elementId\":\"old\"}");
+        ExecutorService executor = Executors.newCachedThreadPool();
+        HttpServer upstream = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        upstream.createContext("/", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            if ("POST".equals(exchange.getRequestMethod())) {
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                stored.set(new String(body, StandardCharsets.UTF_8));
+            }
+            byte[] response = ("GET".equals(exchange.getRequestMethod()) ? stored.get() : "{}").getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        upstream.setExecutor(executor);
+        upstream.start();
+        HealingCache slowCache = new HealingCache(cacheFile.resolveSibling("slow-cache.bin"), Duration.ofHours(1), 100);
+        HealingCacheProxy slowProxy = new HealingCacheProxy("http://localhost:" + upstream.getAddress().getPort(), 0, slowCache);
+        slowProxy.start();
+        try {
+            Assert.assertTrue(send(slowProxy, "GET", LOOKUP, null).body().contains("old"), "Initial lookup failed");
+            Assert.assertEquals(slowCache.size(), 1, "Initial lookup not cached");
+            
+            Assert.assertEquals(send(slowProxy, "POST", "/healenium/selector", "{\"elementId\":\"new\"}").statusCode(), 200,
+                "Write not acknowledged");
+            Assert.assertTrue(send(slowProxy, "GET", LOOKUP, null).body().contains("old"), "Write reached the backend early");
+            Assert.assertEquals(slowCache.size(), 0, "Lookup cached while a write was pending");
+            
+            release.countDown();
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (!stored.get().contains("new") && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            Assert.assertTrue(send(slowProxy, "GET", LOOKUP, null).body().contains("new"), "Stale baseline served after write");
+            LOG.info("✓ Lookup racing a write not cached");
+        } finally {
+            release.countDown();
+            slowProxy.stop();
+            upstream.stop(0);
+            executor.shutdown();
+        }
+    }
+    
+    /**
+     * Test case to verify cached lookups survive a restart through the cache file.
+     */
+    @Test(description = "Verify the cache is persisted between runs")
+    public void testCachePersistsAcrossRuns() throws Exception {
+        saveBaseline("login");
+        String body = send("GET", LOOKUP, null).body();
+        proxy.stop();
+        proxy = null;
+        
+        HealingCache reloaded = new HealingCache(cacheFile, Duration.ofHours(1), 100);
+        
+        Assert.assertEquals(reloaded.size(), 1, "Cache file not reloaded");
+        HealingCache.Entry entry = reloaded.get(LOOKUP);
+        Assert.assertNotNull(entry, "Persisted lookup missing");
+        Assert.assertEquals(entry.getStatus(), 200, "Persisted status differs");
+        Assert.assertEquals(new String(entry.getBody(), StandardCharsets.UTF_8), body, "Persisted body differs");
+        LOG.info("✓ Cache persisted to {}", cacheFile);
+    }
+    
+    /**
+     * Stores the selector baseline through the proxy and waits until the backend serves it.
+     * 
+     * @param elementId value stored in the baseline, so each write can be told apart
+     */
+    private void saveBaseline(String elementId) throws Exception {
+        String selector = "{\"locator\":\"" + LOCATOR + "\",\"url\":\"" + PAGE_URL + "\",\"elementId\":\"" + elementId + "\"}";
+        Assert.assertEquals(send("POST", "/healenium/selector", selector).statusCode(), 200, "Write not acknowledged");
+        String expected = "\"" + elementId + "\"";
+        HttpRequest direct = HttpRequest.newBuilder(URI.create(backend.getUrl() + LOOKUP)).GET().build();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!client.send(direct, HttpResponse.BodyHandlers.ofString()).body().contains(expected)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        Assert.assertTrue(client.send(direct, HttpResponse.BodyHandlers.ofString()).body().contains(expected),
+            "Write not forwarded to the backend");
+    }
+    
+    /**
+     * Sends a request to the proxy under test.
+     */
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        return send(proxy, method, path, body);
+    }
+    
+    /**
+     * Sends a request to a proxy.
+     */
+    private HttpResponse<String> send(HealingCacheProxy target, String method, String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(target.getUrl() + path))
+            .header("Content-Type", "application/json")
+            .method(method, body == null ? HttpRequest.BodyPublishers.noBody() : HttpRequest.BodyPublishers.ofString(body))
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
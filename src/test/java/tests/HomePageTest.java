@@ -5,6 +5,8 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 import pages.HomePage;
 import pages.LoginPage;
+import utils.AuthSessionCache;
+import utils.TestLog;
 
 /**
  * Test class for Home Page functionality.
@@ -15,13 +17,21 @@ import pages.LoginPage;
  */
 public class HomePageTest extends BaseTest {
     
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(HomePageTest.class);
+    
     /**
      * Helper method to perform login before testing home page.
-     * Logs in with valid credentials.
+     * Logs in with valid credentials, reusing the session of an earlier login when possible;
+     * the login form itself is covered by LoginTest.
      */
     private void performLogin() {
-        LoginPage loginPage = new LoginPage(driver);
-        loginPage.login(config.getUsername(), config.getPassword());
+        LoginPage loginPage = new LoginPage(getDriver());
+        boolean loggedIn = AuthSessionCache.login(getDriver(), config.getUsername(), config.getPassword(), () -> {
+            loginPage.login(config.getUsername(), config.getPassword());
+            return loginPage.waitForLoginOutcome();
+        });
+        Assert.assertTrue(loggedIn, "Login failed for " + config.getUsername());
     }
     
     /**
@@ -31,7 +41,7 @@ public class HomePageTest extends BaseTest {
     @Test(priority = 1, description = "Verify home page displays correctly")
     public void testHomePageDisplay() {
         performLogin();
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         
         String pageTitle = homePage.getPageTitle();
         Assert.assertNotNull(pageTitle, "Page title is null");
@@ -40,7 +50,7 @@ public class HomePageTest extends BaseTest {
         Assert.assertTrue(currentUrl.contains("secure"), 
             "Home page URL does not contain 'secure'");
         
-        System.out.println("✓ Home page display test passed");
+        LOG.info("✓ Home page display test passed");
     }
     
     /**
@@ -50,15 +60,15 @@ public class HomePageTest extends BaseTest {
     @Test(priority = 2, description = "Verify logout functionality")
     public void testLogoutFunctionality() {
         performLogin();
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         
         homePage.clickLogout();
         
-        String currentUrl = driver.getCurrentUrl();
+        String currentUrl = getDriver().getCurrentUrl();
         Assert.assertFalse(currentUrl.contains("secure"), 
             "Logout failed - User still on secure page");
         
-        System.out.println("✓ Logout functionality test passed");
+        LOG.info("✓ Logout functionality test passed");
     }
     
     /**
@@ -68,12 +78,12 @@ public class HomePageTest extends BaseTest {
     @Test(priority = 3, description = "Verify page title after login")
     public void testPageTitle() {
         performLogin();
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage(getDriver());
         
         String title = homePage.getPageTitle();
         Assert.assertFalse(title.isEmpty(), "Page title is empty");
         
-        System.out.println("Current Page Title: " + title);
-        System.out.println("✓ Page title test passed");
+        LOG.info("Current Page Title: {}", title);
+        LOG.info("✓ Page title test passed");
     }
 }
@@ -0,0 +1,81 @@
+package tests;
+
+import base.FixtureTest;
+import org.openqa.selenium.By;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import pages.ProductPage;
+import utils.LocatorCostAnalyzer;
+import utils.TestLog;
+
+import java.util.List;
+
+/**
+ * Test class for the locator cost analyzer.
+ * Times every page object locator against a local fixture page with a long
+ * result list, or against a live page given with {@code -Dlocator.cost.url},
+ * and checks that the text-scanning product lookup is flagged. Tests start on
+ * a blank page, so only the opt-in live page touches the network.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class LocatorCostTest extends FixtureTest {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(LocatorCostTest.class);
+    
+    /**
+     * Test case to verify every page locator is timed and the expensive ones are flagged.
+     */
+    @Test(description = "Verify page locators are timed and expensive ones flagged")
+    public void testLocatorCostReport() {
+        String liveUrl = config.getProperty("locator.cost.url");
+        getDriver().get(liveUrl != null ? liveUrl : server.url("products.html"));
+        
+        List<LocatorCostAnalyzer.Finding> findings = LocatorCostAnalyzer.analyzePages(getDriver());
+        
+        Assert.assertFalse(findings.isEmpty(), "No page locators found");
+        LocatorCostAnalyzer.Finding productByName = find(findings, "ProductPage", "PRODUCT_BY_NAME");
+        Assert.assertTrue(productByName.getIssues().stream().anyMatch(issue -> "TEXT_CONTAINS".equals(issue.getRule())),
+            "Text-contains product lookup not flagged");
+        Assert.assertTrue(find(findings, "LoginPage", "usernameField").getIssues().isEmpty(),
+            "Id locator flagged");
+        
+        if (liveUrl == null) {
+            Assert.assertEquals(find(findings, "ProductPage", "searchBox").getMatches(), 1, "Search box not matched");
+            Assert.assertTrue(productByName.getLookupMicros() > find(findings, "LoginPage", "usernameField").getLookupMicros(),
+                "Text scan not measured as more expensive than an id lookup");
+        }
+        LOG.info("✓ {} locators analyzed", findings.size());
+    }
+    
+    /**
+     * Test case to verify a product is selected through the cached parameterized locator.
+     */
+    @Test(description = "Verify product selection by name")
+    public void testSelectProductByName() {
+        getDriver().get(server.url("products.html"));
+        ProductPage productPage = new ProductPage(getDriver());
+        
+        productPage.selectProduct("Product 1999");
+        Assert.assertEquals(getDriver().findElement(By.tagName("body")).getAttribute("data-selected"),
+            "Product 1999", "Wrong product selected");
+        LOG.info("✓ Product selected by name");
+    }
+    
+    /**
+     * Finds the finding for one page field.
+     * 
+     * @param findings analyzer results
+     * @param page page class simple name
+     * @param field field name
+     * @return the finding
+     */
+    private static LocatorCostAnalyzer.Finding find(List<LocatorCostAnalyzer.Finding> findings, String page, String field) {
+        return findings.stream()
+            .filter(finding -> page.equals(finding.getPage()) && field.equals(finding.getName()))
+            .findFirst()
+            .orElseThrow(() -> new AssertionError("No finding for " + page + "." + field));
+    }
+}
@@ -0,0 +1,50 @@
+package tests;
+
+import base.FixtureTest;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Rectangle;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import pages.ProductPage;
+import utils.PageSnapshot;
+import utils.TestLog;
+
+/**
+ * Test class for page snapshots.
+ * Reads the product fields of a local fixture page in one script execution
+ * and compares them with the same elements read through WebDriver commands.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class PageSnapshotTest extends FixtureTest {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(PageSnapshotTest.class);
+    
+    /**
+     * Test case to verify a product snapshot matches the element read with WebDriver commands.
+     */
+    @Test(description = "Verify product snapshot against the fixture page")
+    public void testProductSnapshot() {
+        getDriver().get(server.url("products.html"));
+        ((JavascriptExecutor) getDriver()).executeScript("window.scrollTo(0, 300);");
+        ProductPage productPage = new ProductPage(getDriver());
+        
+        PageSnapshot snapshot = productPage.getProductSnapshot();
+        
+        Assert.assertEquals(snapshot.get("productTitle").getText(), "Product 0", "Wrong product title");
+        Assert.assertEquals(snapshot.get("productPrice").getText(), "$10.00", "Wrong product price");
+        Assert.assertEquals(snapshot.get("cartCount").getText(), "0", "Wrong cart count");
+        Assert.assertTrue(snapshot.get("addToCartButton").isDisplayed(), "Add to cart button not displayed");
+        Assert.assertEquals(snapshot.get("addToCartButton").getAttribute("type"), "button", "Attribute not read");
+        
+        Rectangle expected = getDriver().findElement(By.className("product-title")).getRect();
+        Rectangle actual = snapshot.get("productTitle").getRect();
+        Assert.assertTrue(Math.abs(actual.getX() - expected.getX()) <= 1 && Math.abs(actual.getY() - expected.getY()) <= 1,
+            "Snapshot rect " + actual + " is not document-relative like " + expected);
+        Assert.assertTrue(Math.abs(actual.getWidth() - expected.getWidth()) <= 1, "Snapshot width differs");
+        LOG.info("✓ Product snapshot matches the page: {}", snapshot);
+    }
+}
@@ -0,0 +1,93 @@
+package tests;
+
+import base.FixtureTest;
+import org.openqa.selenium.By;
+import org.testng.Assert;
+import org.testng.ITestContext;
+import org.testng.annotations.Test;
+import utils.ResourceBlocker;
+import utils.TestLog;
+import utils.WaitEngine;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Test class for network resource blocking.
+ * Loads a local fixture page with images, a web font and an analytics script
+ * and verifies that blocked resources never reach the server.
+ * Blocking needs DevTools, so this class always runs on a Chromium browser,
+ * and it opts in to blocking whatever {@code network.block.enabled} says.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class ResourceBlockingTest extends FixtureTest {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(ResourceBlockingTest.class);
+    
+    /** Fixture resources the default classes block */
+    private static final List<String> BLOCKED = List.of("logo.png", "banner.jpg", "font.woff2", "analytics.js");
+    
+    /**
+     * Runs on the configured browser if it is Chromium-based, otherwise on Chrome.
+     * 
+     * @return chrome or edge
+     */
+    @Override
+    protected String getBrowser() {
+        String configured = config.getBrowser().toLowerCase();
+        return "edge".equals(configured) ? configured : "chrome";
+    }
+    
+    /**
+     * Blocks resources on this class's sessions.
+     * 
+     * @param context current test context
+     * @return always true
+     */
+    @Override
+    protected boolean blocksResources(ITestContext context) {
+        return true;
+    }
+    
+    /**
+     * Test case to verify that images, fonts and analytics are blocked while page content loads,
+     * and that the per-test report counts them with their baseline sizes.
+     */
+    @Test(description = "Verify unneeded resources are blocked")
+    public void testUnneededResourcesAreBlocked() throws IOException {
+        ResourceBlocker blocker = ResourceBlocker.forDriver(getDriver());
+        Assert.assertNotNull(blocker, "No resource blocker attached to the " + getBrowser()
+            + " session; check that DevTools is reachable");
+        long expectedBytes = 0;
+        for (String resource : BLOCKED) {
+            ResourceBlocker.recordSize(server.url(resource), server.size(resource));
+            expectedBytes += server.size(resource);
+        }
+        long blockedBefore = blocker.getBlockedRequests();
+        long savedBefore = blocker.getSavedBytes();
+        
+        getDriver().get(server.url("resources.html"));
+        
+        Assert.assertTrue(getDriver().findElement(By.id("content")).isDisplayed(), "Page content not loaded");
+        Assert.assertEquals(server.getHits("/resources.html"), 1, "Page not served");
+        for (String resource : BLOCKED) {
+            Assert.assertEquals(server.getHits("/" + resource), 0, resource + " was not blocked");
+        }
+        
+        // Blocked requests are reported asynchronously by the browser
+        new WaitEngine(getDriver()).poll(driver -> blocker.getSavedBytes() - savedBefore >= expectedBytes,
+            Duration.ofSeconds(5), "four blocked requests to be reported");
+        long blocked = blocker.getBlockedRequests() - blockedBefore;
+        long saved = blocker.getSavedBytes() - savedBefore;
+        Assert.assertTrue(blocked >= BLOCKED.size(), "Only " + blocked + " blocked requests reported");
+        Assert.assertEquals(saved, expectedBytes, "Saved bytes differ from the fixture sizes");
+        String report = blocker.describeSinceMark();
+        Assert.assertTrue(report.startsWith("Blocked requests: ") && report.endsWith(", saved: " + saved / 1024 + " KB"),
+            "Wrong per-test report: " + report);
+        LOG.info("✓ Blocked {} requests on the fixture page, saved {} bytes", blocked, saved);
+    }
+}
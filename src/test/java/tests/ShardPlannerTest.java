@@ -0,0 +1,119 @@
+package tests;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import utils.ShardPlanner;
+import utils.TestLog;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Test class for the shard planner.
+ * Plans are computed from fixed durations, so no browser or history file is needed.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class ShardPlannerTest {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(ShardPlannerTest.class);
+    
+    /**
+     * Test case to verify units are placed longest first on the least loaded node.
+     */
+    @Test(description = "Verify LPT placement of known units")
+    public void testLongestUnitsPlacedFirst() {
+        Map<String, Long> durations = Map.of("a", 10L, "b", 8L, "c", 6L, "d", 4L, "e", 2L);
+        
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(List.of("e", "d", "c", "b", "a"), durations, 2);
+        
+        Assert.assertEquals(shards.get(0).getUnits(), List.of("a", "d", "e"), "Wrong units on node 0");
+        Assert.assertEquals(shards.get(1).getUnits(), List.of("b", "c"), "Wrong units on node 1");
+        Assert.assertEquals(shards.get(0).getEstimatedMillis(), 16, "Wrong estimate on node 0");
+        Assert.assertEquals(shards.get(1).getEstimatedMillis(), 14, "Wrong estimate on node 1");
+        LOG.info("✓ LPT placement");
+    }
+    
+    /**
+     * Test case to verify a realistic suite splits to within a few percent of the average.
+     */
+    @Test(description = "Verify shard imbalance stays within a few percent of the average")
+    public void testImbalanceWithinFewPercent() {
+        Random random = new Random(42);
+        List<String> units = new ArrayList<>();
+        Map<String, Long> durations = new HashMap<>();
+        for (int i = 0; i < 200; i++) {
+            String unit = "tests.Suite.test" + i;
+            units.add(unit);
+            durations.put(unit, 100L + random.nextInt(5_000));
+        }
+        
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(units, durations, 4);
+        
+        double imbalance = ShardPlanner.imbalance(shards);
+        Assert.assertTrue(imbalance <= 1.05, "Slowest shard " + imbalance + "x the average");
+        Set<String> assigned = new HashSet<>();
+        for (ShardPlanner.Shard shard : shards) {
+            for (String unit : shard.getUnits()) {
+                Assert.assertTrue(assigned.add(unit), unit + " assigned twice");
+            }
+        }
+        Assert.assertEquals(assigned.size(), units.size(), "Units left unassigned");
+        LOG.info("✓ Imbalance {}", String.format("%.3f", imbalance));
+    }
+    
+    /**
+     * Test case to verify units without history are dealt round-robin, least loaded node first.
+     */
+    @Test(description = "Verify unseen units are dealt round-robin")
+    public void testUnseenUnitsDealtRoundRobin() {
+        List<ShardPlanner.Shard> shards = ShardPlanner.plan(List.of("z", "known", "x", "y"), Map.of("known", 10L), 2);
+        
+        Assert.assertEquals(shards.get(0).getUnits(), List.of("known", "y"), "Wrong units on node 0");
+        Assert.assertEquals(shards.get(1).getUnits(), List.of("x", "z"), "Wrong units on node 1");
+        Assert.assertEquals(ShardPlanner.imbalance(ShardPlanner.plan(List.of("x", "y"), Map.of(), 2)), 1.0,
+            "Imbalance without known durations");
+        LOG.info("✓ Unseen units dealt round-robin");
+    }
+    
+    /**
+     * Test case to verify every node computes the same plan whatever order it lists the units in.
+     */
+    @Test(description = "Verify the plan does not depend on unit order")
+    public void testPlanIndependentOfInputOrder() {
+        List<String> units = new ArrayList<>();
+        Map<String, Long> durations = new HashMap<>();
+        for (int i = 0; i < 30; i++) {
+            units.add("unit" + i);
+            if (i % 3 != 0) {
+                durations.put("unit" + i, (long) (i % 5) * 100);
+            }
+        }
+        List<String> shuffled = new ArrayList<>(units);
+        Collections.shuffle(shuffled, new Random(7));
+        
+        List<ShardPlanner.Shard> first = ShardPlanner.plan(units, durations, 3);
+        List<ShardPlanner.Shard> second = ShardPlanner.plan(shuffled, durations, 3);
+        
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(second.get(i).getUnits(), first.get(i).getUnits(), "Plans differ on node " + i);
+        }
+        LOG.info("✓ Plan independent of input order");
+    }
+    
+    /**
+     * Test case to verify a node count below one is rejected.
+     */
+    @Test(description = "Verify invalid node count is rejected")
+    public void testRejectsInvalidNodeCount() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> ShardPlanner.plan(List.of("a"), Map.of(), 0));
+    }
+}
@@ -0,0 +1,115 @@
+package tests;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import utils.StreamingDataProvider;
+import utils.TestLog;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test class for the streaming data provider.
+ * Rows are read from temporary CSV and JSONL files, so no browser is needed.
+ * 
+ * @author Carolina Steadham
+ * @version 1.0
+ */
+public class StreamingDataProviderTest {
+    
+    /** Structured logger */
+    private static final TestLog LOG = TestLog.getLogger(StreamingDataProviderTest.class);
+    
+    /**
+     * Test case to verify quoted CSV fields keep commas and escaped quotes, and columns are picked by header name.
+     */
+    @Test(description = "Verify CSV quoting and column selection")
+    public void testCsvQuotingAndColumns() throws IOException {
+        Path file = write("data.csv",
+            "id,username,password",
+            "1,plain,secret",
+            "2,\"comma, user\",\"say \"\"hi\"\"\"",
+            "",
+            "3,short");
+        
+        List<String> rows = rows(new StreamingDataProvider(file.toString(), new String[] {"password", "username"}, 1, 0));
+        
+        Assert.assertEquals(rows, List.of("[secret, plain]", "[say \"hi\", comma, user]", "[, short]"), "Wrong CSV rows");
+        LOG.info("✓ CSV rows: {}", rows);
+    }
+    
+    /**
+     * Test case to verify JSONL rows pass the named fields in order and missing fields as empty strings.
+     */
+    @Test(description = "Verify JSONL rows")
+    public void testJsonLines() throws IOException {
+        Path file = write("data.jsonl",
+            "{\"username\":\"alice\",\"password\":\"one\",\"extra\":true}",
+            "",
+            "{\"password\":\"two\",\"username\":\"bob, \\\"jr\\\"\"}",
+            "{\"username\":\"carol\"}");
+        
+        List<String> rows = rows(new StreamingDataProvider(file.toString(), new String[] {"username", "password"}, 1, 0));
+        
+        Assert.assertEquals(rows, List.of("[alice, one]", "[bob, \"jr\", two]", "[carol, ]"), "Wrong JSONL rows");
+        Assert.assertThrows(IllegalArgumentException.class,
+            () -> new StreamingDataProvider(file.toString(), new String[0], 1, 0));
+        LOG.info("✓ JSONL rows: {}", rows);
+    }
+    
+    /**
+     * Test case to verify shards are disjoint and together cover every row.
+     */
+    @Test(description = "Verify shards are disjoint and cover every row")
+    public void testShardsDisjointAndComplete() throws IOException {
+        List<String> lines = new ArrayList<>(List.of("username,password"));
+        for (int i = 0; i < 50; i++) {
+            lines.add("user" + i + ",pass" + i);
+            if (i % 7 == 0) {
+                lines.add("");
+            }
+        }
+        Path file = write("shards.csv", lines.toArray(new String[0]));
+        
+        Set<String> seen = new HashSet<>();
+        for (int shard = 0; shard < 3; shard++) {
+            List<String> rows = rows(new StreamingDataProvider(file.toString(), new String[0], 3, shard));
+            Assert.assertTrue(Math.abs(rows.size() - 50 / 3) <= 1, "Uneven shard " + shard + ": " + rows.size());
+            for (String row : rows) {
+                Assert.assertTrue(seen.add(row), row + " served by two shards");
+            }
+        }
+        Assert.assertEquals(seen.size(), 50, "Rows missing from every shard");
+        Assert.assertThrows(IllegalArgumentException.class,
+            () -> new StreamingDataProvider(file.toString(), new String[0], 3, 3));
+        LOG.info("✓ 3 shards cover {} rows", seen.size());
+    }
+    
+    /**
+     * Writes a temporary data file.
+     */
+    private static Path write(String name, String... lines) throws IOException {
+        Path file = Files.createTempDirectory("streaming-data").resolve(name);
+        Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+    
+    /**
+     * Drains a provider into printable rows.
+     */
+    private static List<String> rows(StreamingDataProvider provider) {
+        List<String> rows = new ArrayList<>();
+        while (provider.hasNext()) {
+            rows.add(Arrays.toString(provider.next()));
+        }
+        Assert.assertFalse(provider.hasNext(), "Provider not exhausted");
+        return rows;
+    }
+}
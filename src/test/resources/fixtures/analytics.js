@@ -0,0 +1 @@
+window.analyticsLoaded = true;